@@ -1,19 +1,25 @@
 package com.example.demo.controller;
 
+import com.example.demo.service.CsvImportService;
 import com.example.demo.service.DataUpdateService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
  * 관리자용 데이터 업데이트 API
  */
+@Slf4j
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
 public class AdminController {
 
     private final DataUpdateService dataUpdateService;
+    private final CsvImportService csvImportService;
 
     /**
      * 특정 ticker의 데이터를 수동으로 업데이트
@@ -34,4 +40,28 @@ public class AdminController {
         dataUpdateService.updateAllTickersData();
         return ResponseEntity.ok("Update process initiated for all tickers");
     }
+
+    /**
+     * history/ 폴더의 모든 CSV를 다시 가져오기
+     * 예: GET /api/admin/import
+     */
+    @GetMapping("/import")
+    public ResponseEntity<Map<String, String>> importAll() {
+        return ResponseEntity.ok(csvImportService.importAll(true));
+    }
+
+    /**
+     * 특정 ticker의 CSV를 다시 가져오기
+     * 예: GET /api/admin/import/QQQ
+     */
+    @GetMapping("/import/{ticker}")
+    public ResponseEntity<String> importTicker(@PathVariable String ticker) {
+        try {
+            int records = csvImportService.importTicker(ticker.toUpperCase());
+            return ResponseEntity.ok("Imported " + records + " records for " + ticker.toUpperCase());
+        } catch (Exception e) {
+            log.error("Error importing CSV for {}", ticker, e);
+            return ResponseEntity.ok("Failed to import " + ticker + ": " + e.getMessage());
+        }
+    }
 }
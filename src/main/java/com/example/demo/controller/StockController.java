@@ -1,16 +1,35 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BatchAnalysisRequest;
 import com.example.demo.dto.StockAnalysisResponse;
+import com.example.demo.model.ChartData;
+import com.example.demo.model.TickerMetadata;
+import com.example.demo.model.UnderwaterCurve;
+import com.example.demo.model.WindowDrawdown;
+import com.example.demo.service.AnalysisField;
+import com.example.demo.service.AnalysisParameters;
+import com.example.demo.service.AnalysisResponseCache;
 import com.example.demo.service.AnalysisService;
 import com.example.demo.service.StockDataService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Arrays;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Slf4j
 @RestController
@@ -21,22 +40,146 @@ public class StockController {
 
     private final StockDataService stockDataService;
     private final AnalysisService analysisService;
+    private final AnalysisResponseCache responseCache;
 
-    private static final List<String> DEFAULT_TICKERS = Arrays.asList("QQQ", "VOO", "SOXX");
     private static final int DEFAULT_YEARS = 2;  // 2년치 데이터면 충분
 
+    /**
+     * Most tickers in one batch analysis request
+     */
+    private static final int MAX_BATCH_TICKERS = 500;
+
+    /**
+     * Analyses may be reused by browsers and proxies for a minute, then revalidated with their ETag
+     */
+    private static final CacheControl ANALYSIS_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+
     /**
      * Get analysis for a specific stock
-     * GET /api/stocks/{ticker}/analysis?years=10
+     * GET /api/stocks/{ticker}/analysis?years=10&levels=-10,-20,-30&tolerance=2.5&horizons=1,3,6,12,24&points=200
+     * Missing levels, tolerance or horizons fall back to the defaults; points reduces the one-year chart.
      */
     @GetMapping("/{ticker}/analysis")
-    public ResponseEntity<StockAnalysisResponse> getStockAnalysis(
+    public ResponseEntity<byte[]> getStockAnalysis(
+            @PathVariable String ticker,
+            @RequestParam(defaultValue = "10") int years,
+            @RequestParam(required = false) List<Integer> levels,
+            @RequestParam(required = false) BigDecimal tolerance,
+            @RequestParam(required = false) List<Integer> horizons,
+            @RequestParam(required = false) Integer points,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        String symbol = ticker.toUpperCase();
+        try {
+            AnalysisParameters parameters = AnalysisParameters.of(levels, tolerance, horizons);
+
+            // Answer a revalidation from the data version alone, before any analysis work
+            Optional<AnalysisService.ResponseVersion> version =
+                analysisService.getResponseVersion(List.of(symbol), years, parameters, points);
+            if (version.isPresent() && matchesAnyTag(ifNoneMatch, version.get().tag())) {
+                return notModified(version.get(), ifNoneMatch);
+            }
+
+            Supplier<StockAnalysisResponse> analysis = () -> {
+                log.info("Analyzing {} with {} years of data", ticker, years);
+                return analysisService.analyzeStock(symbol, years, parameters, points);
+            };
+            AnalysisResponseCache.Payload payload = version.isPresent()
+                ? responseCache.get(version.get().tag(), analysis, response -> response.getCurrentDrawdown() != null)
+                : responseCache.serialize(analysis.get());
+            return payloadResponse(payload, version, acceptEncoding);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid analysis parameters for {}: {}", ticker, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get metadata of a stock without loading its price data
+     * GET /api/stocks/{ticker}/metadata
+     */
+    @GetMapping("/{ticker}/metadata")
+    public ResponseEntity<TickerMetadata> getMetadata(@PathVariable String ticker) {
+        return stockDataService.getMetadata(ticker.toUpperCase())
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get the chart of a historical drawdown event (3 months before the peak to 12 months after the bottom)
+     * GET /api/stocks/{ticker}/events/{eventId}/chart?points=300 (every bar when points is missing)
+     */
+    @GetMapping("/{ticker}/events/{eventId}/chart")
+    public ResponseEntity<ChartData> getEventChart(
+            @PathVariable String ticker,
+            @PathVariable String eventId,
+            @RequestParam(required = false) Integer points) {
+
+        String symbol = ticker.toUpperCase();
+        if (stockDataService.getMetadata(symbol).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return analysisService.getEventChart(symbol, eventId, points)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid chart request for {}: {}", symbol, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the largest peak-to-trough decline within a date window (whole history by default)
+     * GET /api/stocks/{ticker}/drawdown?from=2020-01-01&to=2020-12-31
+     */
+    @GetMapping("/{ticker}/drawdown")
+    public ResponseEntity<WindowDrawdown> getWindowDrawdown(
             @PathVariable String ticker,
-            @RequestParam(defaultValue = "10") int years) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
 
-        log.info("Analyzing {} with {} years of data", ticker, years);
-        StockAnalysisResponse response = analysisService.analyzeStock(ticker.toUpperCase(), years);
-        return ResponseEntity.ok(response);
+        String symbol = ticker.toUpperCase();
+        if (stockDataService.getMetadata(symbol).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(analysisService.analyzeWindow(symbol, from, to));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid drawdown window for {}: {}", symbol, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the drawdown from the running all-time high for the whole history
+     * GET /api/stocks/{ticker}/underwater?points=300 (every bar when points is missing)
+     */
+    @GetMapping("/{ticker}/underwater")
+    public ResponseEntity<UnderwaterCurve> getUnderwaterCurve(
+            @PathVariable String ticker,
+            @RequestParam(required = false) Integer points) {
+
+        String symbol = ticker.toUpperCase();
+        if (stockDataService.getMetadata(symbol).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(analysisService.getUnderwaterCurve(symbol, points));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid underwater request for {}: {}", symbol, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get metadata of every tracked ticker
+     * GET /api/stocks/catalog
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<List<TickerMetadata>> getCatalog() {
+        return ResponseEntity.ok(stockDataService.getMetadataIndex());
     }
 
     /**
@@ -50,7 +193,7 @@ public class StockController {
         log.info("Refresh requested for {} - not supported (using local data)", ticker);
         return ResponseEntity.ok(Map.of(
             "status", "info",
-            "message", "Refresh not available - using local CSV data. Please update CSV files in history/ folder and run convert_csv_to_json.py"
+            "message", "Refresh not available - using local CSV data. Please update CSV files in history/ folder and call /api/admin/import"
         ));
     }
 
@@ -60,39 +203,193 @@ public class StockController {
      */
     @GetMapping("/supported")
     public ResponseEntity<List<String>> getSupportedTickers() {
-        return ResponseEntity.ok(DEFAULT_TICKERS);
+        return ResponseEntity.ok(stockDataService.getFeaturedTickers());
     }
 
     /**
      * Get analysis for all default tickers
-     * GET /api/stocks/analysis/all?years=10
+     * GET /api/stocks/analysis/all?years=10 (same levels, tolerance, horizons and points parameters as a single analysis)
      */
     @GetMapping("/analysis/all")
-    public ResponseEntity<Map<String, StockAnalysisResponse>> getAllAnalysis(
-            @RequestParam(defaultValue = "10") int years) {
-
-        log.info("Analyzing all default tickers");
-        Map<String, StockAnalysisResponse> results = new java.util.HashMap<>();
-
-        for (String ticker : DEFAULT_TICKERS) {
-            try {
-                StockAnalysisResponse response = analysisService.analyzeStock(ticker, years);
-                results.put(ticker, response);
-            } catch (Exception e) {
-                log.error("Error analyzing {}", ticker, e);
-                results.put(ticker, StockAnalysisResponse.builder()
-                    .message("Error: " + e.getMessage())
-                    .build());
+    public ResponseEntity<byte[]> getAllAnalysis(
+            @RequestParam(defaultValue = "10") int years,
+            @RequestParam(required = false) List<Integer> levels,
+            @RequestParam(required = false) BigDecimal tolerance,
+            @RequestParam(required = false) List<Integer> horizons,
+            @RequestParam(required = false) Integer points,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        try {
+            AnalysisParameters parameters = AnalysisParameters.of(levels, tolerance, horizons);
+            List<String> tickers = stockDataService.getFeaturedTickers();
+
+            Optional<AnalysisService.ResponseVersion> version =
+                analysisService.getResponseVersion(tickers, years, parameters, points);
+            if (version.isPresent() && matchesAnyTag(ifNoneMatch, version.get().tag())) {
+                return notModified(version.get(), ifNoneMatch);
+            }
+
+            Supplier<Map<String, StockAnalysisResponse>> analysis = () -> {
+                log.info("Analyzing all default tickers");
+                return analysisService.analyzeAll(tickers, years, parameters, points);
+            };
+            AnalysisResponseCache.Payload payload = version.isPresent()
+                ? responseCache.get(version.get().tag(), analysis,
+                    results -> results.values().stream().allMatch(response -> response.getCurrentDrawdown() != null))
+                : responseCache.serialize(analysis.get());
+            return payloadResponse(payload, version, acceptEncoding);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid analysis parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Analyze a batch of tickers, computing only the requested fields of each
+     * POST /api/stocks/analysis/batch {"tickers": ["QQQ", "VOO"], "fields": ["currentDrawdown"], "years": 10}
+     * Fields are currentDrawdown, similar, levels and charts (all when missing); fields that were not
+     * requested are null. The serialized result is reused until a ticker's data changes.
+     */
+    @PostMapping("/analysis/batch")
+    public ResponseEntity<byte[]> getBatchAnalysis(
+            @RequestBody BatchAnalysisRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        try {
+            List<String> tickers = batchTickers(request.getTickers());
+            Set<AnalysisField> fields = AnalysisField.parse(request.getFields());
+            AnalysisParameters parameters =
+                AnalysisParameters.of(request.getLevels(), request.getTolerance(), request.getHorizons());
+            int years = request.getYears();
+            Integer points = request.getPoints();
+
+            Optional<AnalysisService.ResponseVersion> version =
+                analysisService.getResponseVersion(tickers, years, parameters, points, fields);
+
+            Supplier<Map<String, StockAnalysisResponse>> analysis = () -> {
+                log.info("Analyzing {} tickers for {}", tickers.size(), fields);
+                return analysisService.analyzeBatch(tickers, fields, years, parameters, points);
+            };
+            AnalysisResponseCache.Payload payload = version.isPresent()
+                ? responseCache.get(version.get().tag(), analysis,
+                    results -> results.values().stream().allMatch(response -> response.getDataEndDate() != null))
+                : responseCache.serialize(analysis.get());
+
+            // Responses to POST are not revalidated, so no validators are sent
+            return payloadResponse(payload, Optional.empty(), acceptEncoding);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid batch analysis request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Requested tickers upper-cased, without duplicates, in request order
+     * @throws IllegalArgumentException if there are none or more than {@link #MAX_BATCH_TICKERS}
+     */
+    private static List<String> batchTickers(List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one ticker is required");
+        }
+        Set<String> tickers = new LinkedHashSet<>();
+        for (String ticker : requested) {
+            if (ticker == null || ticker.isBlank()) {
+                throw new IllegalArgumentException("Tickers must not be blank");
             }
+            tickers.add(ticker.trim().toUpperCase());
         }
+        if (tickers.size() > MAX_BATCH_TICKERS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_TICKERS + " tickers are allowed: " + tickers.size());
+        }
+        return List.copyOf(tickers);
+    }
 
-        return ResponseEntity.ok(results);
+    /**
+     * Serialized analysis written as is, gzip-compressed when the client accepts it
+     * Only reusable payloads carry an ETag, Last-Modified and Cache-Control, so that a failed
+     * analysis is never revalidated as current. The compressed variant has its own strong tag.
+     */
+    private static ResponseEntity<byte[]> payloadResponse(
+            AnalysisResponseCache.Payload payload,
+            Optional<AnalysisService.ResponseVersion> version,
+            String acceptEncoding) {
+
+        boolean gzip = payload.gzip() != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (payload.reusable() && version.isPresent()) {
+            builder.eTag(gzip ? gzipTag(version.get().tag()) : version.get().tag())
+                .lastModified(version.get().lastModified())
+                .cacheControl(ANALYSIS_CACHE_CONTROL);
+        }
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+        }
+        return builder.body(payload.json());
+    }
+
+    private static ResponseEntity<byte[]> notModified(AnalysisService.ResponseVersion version, String ifNoneMatch) {
+        String tag = matchesTag(ifNoneMatch, gzipTag(version.tag())) ? gzipTag(version.tag()) : version.tag();
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(tag)
+            .lastModified(version.lastModified())
+            .cacheControl(ANALYSIS_CACHE_CONTROL)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .build();
+    }
+
+    /**
+     * Whether an If-None-Match header lists the tag or is "*" (weak comparison, as for GET)
+     */
+    private static boolean matchesTag(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the tag or its gzip variant is listed
+     */
+    private static boolean matchesAnyTag(String ifNoneMatch, String tag) {
+        return matchesTag(ifNoneMatch, tag) || matchesTag(ifNoneMatch, gzipTag(tag));
+    }
+
+    /**
+     * Strong tag of the gzip-encoded representation of a response tagged {@code tag}
+     */
+    private static String gzipTag(String tag) {
+        return tag.substring(0, tag.length() - 1) + "-gzip\"";
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
     /**
      * Initialize all stock data (disabled - using local CSV data only)
      * POST /api/stocks/initialize
-     * To initialize data, run convert_csv_to_json.py script
+     * To initialize data, add CSV files to history/ and call /api/admin/import
      */
     @PostMapping("/initialize")
     public ResponseEntity<Map<String, Object>> initializeAllStockData() {
@@ -102,8 +399,8 @@ public class StockController {
 
         results.put("status", "info");
         results.put("message", "Initialization not available - using local CSV data");
-        results.put("instructions", "To update data: 1) Update CSV files in history/ folder, 2) Run: python3 convert_csv_to_json.py");
-        results.put("supportedTickers", DEFAULT_TICKERS);
+        results.put("instructions", "To update data: 1) Update CSV files in history/ folder, 2) Call: GET /api/admin/import");
+        results.put("supportedTickers", stockDataService.getFeaturedTickers());
 
         return ResponseEntity.ok(results);
     }
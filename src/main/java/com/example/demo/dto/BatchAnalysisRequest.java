@@ -0,0 +1,43 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAnalysisRequest {
+    /**
+     * 분석할 티커 목록 (응답도 이 순서를 따름)
+     */
+    private List<String> tickers;
+
+    /**
+     * 계산할 필드 (currentDrawdown, similar, levels, charts), 비어 있으면 전체
+     */
+    private List<String> fields;
+
+    /**
+     * 분석 기간 (년)
+     */
+    @Builder.Default
+    private int years = 10;
+
+    /**
+     * 하락률 수준, 허용 오차, 수익률 기간 (없으면 기본값)
+     */
+    private List<Integer> levels;
+    private BigDecimal tolerance;
+    private List<Integer> horizons;
+
+    /**
+     * 1년 차트 봉 수 (없으면 전체)
+     */
+    private Integer points;
+}
@@ -43,33 +43,29 @@ public class DrawdownLevelAnalysis {
     @AllArgsConstructor
     public static class AverageRecoveryStats {
         /**
-         * 1개월 후 평균 수익률
+         * 기간별 평균 수익률과 손실 사례 수 (요청한 기간 순서)
          */
-        private double month1Avg;
-        private int month1LossCount;
-
-        /**
-         * 3개월 후 평균 수익률
-         */
-        private double month3Avg;
-        private int month3LossCount;
+        private List<HorizonStats> horizons;
+    }
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HorizonStats {
         /**
-         * 6개월 후 평균 수익률
+         * 저점 이후 기간 (개월)
          */
-        private double month6Avg;
-        private int month6LossCount;
+        private int months;
 
         /**
-         * 12개월 후 평균 수익률
+         * 평균 수익률 (%)
          */
-        private double month12Avg;
-        private int month12LossCount;
+        private double averageReturn;
 
         /**
-         * 24개월 후 평균 수익률
+         * 수익률이 마이너스였던 사례 수
          */
-        private double month24Avg;
-        private int month24LossCount;
+        private int lossCount;
     }
 }
@@ -14,13 +14,20 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class HistoricalDrawdown {
+    /**
+     * 이벤트 ID (고점 날짜) - 차트는 /api/stocks/{ticker}/events/{eventId}/chart 에서 조회
+     */
+    private String eventId;
+
     private LocalDate startDate;
     private LocalDate bottomDate;
-    private BigDecimal drawdownPercent;
-    private List<RecoveryPeriod> recoveryPeriods;
 
     /**
-     * 차트 데이터 (전중후 가격 패턴)
+     * 시계열 내 고점/저점 위치
      */
-    private ChartData chartData;
+    private int peakIndex;
+    private int bottomIndex;
+
+    private BigDecimal drawdownPercent;
+    private List<RecoveryPeriod> recoveryPeriods;
 }
@@ -0,0 +1,547 @@
+package com.example.demo.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 일별 가격 시계열 (컬럼 기반, 불변)
+ *
+ * 날짜는 epoch-day int, 가격은 double, 거래량은 long 배열로 보관합니다.
+ * 모든 인덱스는 날짜 오름차순이며, {@link StockData} 형태가 필요한 곳에는
+ * {@link #toStockDataList()} 뷰를 제공합니다.
+ */
+public final class PriceSeries {
+
+    private static final AtomicLong INSTANCE_IDS = new AtomicLong();
+
+    private static final PriceSeries EMPTY = new PriceSeries(
+        new int[0], new double[0], new double[0], new double[0], new double[0], new long[0], null);
+
+    /**
+     * FNV-1a offset basis, the running hash of an empty series
+     */
+    public static final long HASH_SEED = 0xCBF29CE484222325L;
+
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final int[] epochDays;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+
+    /**
+     * Identity of this instance, unique within the process
+     */
+    private final long instanceId = INSTANCE_IDS.incrementAndGet();
+
+    /**
+     * {@link #instanceId()} of the series this one was built from by appending later bars, 0 if none
+     */
+    private final long appendedTo;
+
+    /**
+     * Size and {@link #contentHash()} of that series, the hash only if it was computed by then (else 0)
+     */
+    private final int appendedToSize;
+    private final long appendedToHash;
+
+    /**
+     * Lazily computed {@link #contentHash()}, 0 until first use
+     */
+    private volatile long contentHash;
+
+    private PriceSeries(int[] epochDays, double[] open, double[] high, double[] low,
+                        double[] close, long[] volume, PriceSeries appendedTo) {
+        this.epochDays = epochDays;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        // Only the identity, size and hash are kept, so that a chain of appends does not pin old columns
+        this.appendedTo = appendedTo != null ? appendedTo.instanceId : 0;
+        this.appendedToSize = appendedTo != null ? appendedTo.size() : 0;
+        this.appendedToHash = appendedTo != null ? appendedTo.contentHash : 0;
+    }
+
+    public static PriceSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Wrap already-sorted column arrays without copying.
+     * The arrays are owned by the series afterwards and must not be modified.
+     */
+    public static PriceSeries wrap(int[] epochDays, double[] open, double[] high, double[] low,
+                                   double[] close, long[] volume) {
+        int n = epochDays.length;
+        if (open.length != n || high.length != n || low.length != n || close.length != n || volume.length != n) {
+            throw new IllegalArgumentException("Column lengths differ");
+        }
+        for (int i = 1; i < n; i++) {
+            if (epochDays[i] < epochDays[i - 1]) {
+                throw new IllegalArgumentException("Dates are not sorted at index " + i);
+            }
+        }
+        return n == 0 ? EMPTY : new PriceSeries(epochDays, open, high, low, close, volume, null);
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * Build a series from row objects, sorting by date if needed
+     */
+    public static PriceSeries fromStockData(List<StockData> stockDataList) {
+        if (stockDataList == null || stockDataList.isEmpty()) {
+            return EMPTY;
+        }
+
+        Builder builder = new Builder(stockDataList.size());
+        for (StockData data : stockDataList) {
+            builder.add(
+                (int) data.getDate().toEpochDay(),
+                toDouble(data.getOpen()),
+                toDouble(data.getHigh()),
+                toDouble(data.getLow()),
+                toDouble(data.getClose()),
+                data.getVolume() != null ? data.getVolume() : 0L);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    public int epochDay(int index) {
+        return epochDays[index];
+    }
+
+    public LocalDate date(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public double open(int index) {
+        return open[index];
+    }
+
+    public double high(int index) {
+        return high[index];
+    }
+
+    public double low(int index) {
+        return low[index];
+    }
+
+    public double close(int index) {
+        return close[index];
+    }
+
+    public long volume(int index) {
+        return volume[index];
+    }
+
+    public long instanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Whether this series is the instance with the given id, or was built from it by
+     * {@link #mergeWith(PriceSeries)} with bars dated after its last bar only.
+     * Either way its first bars are exactly the bars of that instance.
+     */
+    public boolean extendsInstance(long instanceId) {
+        return instanceId == this.instanceId || (appendedTo != 0 && instanceId == appendedTo);
+    }
+
+    /**
+     * {@link #contentHash()} of the first {@code prefixSize} bars if it is known without hashing: this series'
+     * hash once computed, or the hash of the series it extends as of {@link #mergeWith(PriceSeries)}
+     * @return 0 when not known
+     */
+    public long knownPrefixHash(int prefixSize) {
+        if (prefixSize == size()) {
+            return contentHash;
+        }
+        return appendedTo != 0 && prefixSize == appendedToSize ? appendedToHash : 0;
+    }
+
+    /**
+     * Close price as a BigDecimal, for the DTO boundary
+     */
+    public BigDecimal closeDecimal(int index) {
+        return BigDecimal.valueOf(close[index]);
+    }
+
+    /**
+     * 64-bit FNV-1a hash over every column, for cache keys that must change with the data
+     */
+    public long contentHash() {
+        long hash = contentHash;
+        if (hash == 0) {
+            hash = HASH_SEED;
+            for (int i = 0; i < size(); i++) {
+                hash = foldHash(hash, i);
+            }
+            hash = finishHash(hash);
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Fold bar {@code index} into a running hash started at {@link #HASH_SEED}.
+     * Folding the bars of a series in order and finishing with {@link #finishHash(long)} gives its
+     * {@link #contentHash()}, so the hash of a growing series can be extended bar by bar.
+     */
+    public long foldHash(long hash, int index) {
+        hash = (hash ^ epochDays[index]) * FNV_PRIME;
+        hash = (hash ^ Double.doubleToLongBits(open[index])) * FNV_PRIME;
+        hash = (hash ^ Double.doubleToLongBits(high[index])) * FNV_PRIME;
+        hash = (hash ^ Double.doubleToLongBits(low[index])) * FNV_PRIME;
+        hash = (hash ^ Double.doubleToLongBits(close[index])) * FNV_PRIME;
+        return (hash ^ volume[index]) * FNV_PRIME;
+    }
+
+    /**
+     * Content hash from a running hash; 0 is reserved for "not computed yet"
+     */
+    public static long finishHash(long hash) {
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Approximate heap size of the column arrays, for memory budgeting
+     */
+    public long estimatedBytes() {
+        return 6 * 16L + (long) size() * (4 + 8 * 4 + 8);
+    }
+
+    public LocalDate firstDate() {
+        return isEmpty() ? null : date(0);
+    }
+
+    public LocalDate lastDate() {
+        return isEmpty() ? null : date(size() - 1);
+    }
+
+    /**
+     * First index whose date is on or after the given epoch day (size() if none)
+     */
+    public int lowerBound(long epochDay) {
+        int lo = 0;
+        int hi = epochDays.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * First index whose date is after the given epoch day (size() if none)
+     */
+    public int upperBound(long epochDay) {
+        int lo = 0;
+        int hi = epochDays.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] <= epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Index at or after {@code fromIndex} whose date is closest to the given epoch day,
+     * the earliest one on ties (fromIndex must be a valid index)
+     */
+    public int nearestIndex(long epochDay, int fromIndex) {
+        int after = Math.max(lowerBound(epochDay), fromIndex);
+        if (after == fromIndex) {
+            return after;
+        }
+
+        // Earliest bar of the last date before the target
+        int before = Math.max(lowerBound(epochDays[after - 1]), fromIndex);
+        if (after == size() || epochDay - epochDays[before] <= epochDays[after] - epochDay) {
+            return before;
+        }
+        return after;
+    }
+
+    /**
+     * Copy of the bars in [fromIndex, toIndex)
+     */
+    public PriceSeries slice(int fromIndex, int toIndex) {
+        if (fromIndex == 0 && toIndex == size()) {
+            return this;
+        }
+        if (fromIndex >= toIndex) {
+            return EMPTY;
+        }
+        return new PriceSeries(
+            Arrays.copyOfRange(epochDays, fromIndex, toIndex),
+            Arrays.copyOfRange(open, fromIndex, toIndex),
+            Arrays.copyOfRange(high, fromIndex, toIndex),
+            Arrays.copyOfRange(low, fromIndex, toIndex),
+            Arrays.copyOfRange(close, fromIndex, toIndex),
+            Arrays.copyOfRange(volume, fromIndex, toIndex),
+            null);
+    }
+
+    /**
+     * Upsert by date: bars of {@code newer} replace bars with the same date, the result stays sorted.
+     * When a date repeats, the later bar wins.
+     * If every bar of {@code newer} is dated after the last bar, the result remembers that it
+     * extends this series (see {@link #extendsInstance(long)}).
+     */
+    public PriceSeries mergeWith(PriceSeries newer) {
+        if (newer.isEmpty()) {
+            return this;
+        }
+        boolean append = !isEmpty() && newer.epochDays[0] > epochDays[size() - 1];
+
+        Builder builder = new Builder(size() + newer.size());
+        int i = 0;
+        int j = 0;
+        while (i < size() || j < newer.size()) {
+            if (j >= newer.size() || (i < size() && epochDays[i] < newer.epochDays[j])) {
+                builder.upsert(epochDays[i], open[i], high[i], low[i], close[i], volume[i]);
+                i++;
+            } else {
+                if (i < size() && epochDays[i] == newer.epochDays[j]) {
+                    i++;
+                }
+                builder.upsert(newer.epochDays[j], newer.open[j], newer.high[j], newer.low[j],
+                    newer.close[j], newer.volume[j]);
+                j++;
+            }
+        }
+        return builder.build(append ? this : null);
+    }
+
+    /**
+     * Row view of a single bar
+     */
+    public StockData get(int index) {
+        return StockData.builder()
+            .date(date(index))
+            .open(toDecimal(open[index]))
+            .high(toDecimal(high[index]))
+            .low(toDecimal(low[index]))
+            .close(toDecimal(close[index]))
+            .volume(volume[index])
+            .build();
+    }
+
+    /**
+     * Read-only {@link StockData} view, materializing rows on access
+     */
+    public List<StockData> toStockDataList() {
+        return new StockDataView();
+    }
+
+    private final class StockDataView extends AbstractList<StockData> implements RandomAccess {
+        @Override
+        public StockData get(int index) {
+            return PriceSeries.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return PriceSeries.this.size();
+        }
+    }
+
+    /**
+     * Read-only view of the dates in [fromIndex, toIndex) as "yyyy-MM-dd" chart labels, without copying
+     */
+    public List<String> dateLabels(int fromIndex, int toIndex) {
+        return new ColumnView<>(fromIndex, toIndex) {
+            @Override
+            public String get(int index) {
+                return date(offset(index)).toString();
+            }
+        };
+    }
+
+    /**
+     * Read-only view of the closes in [fromIndex, toIndex) as BigDecimals, without copying
+     */
+    public List<BigDecimal> closeDecimals(int fromIndex, int toIndex) {
+        return new ColumnView<>(fromIndex, toIndex) {
+            @Override
+            public BigDecimal get(int index) {
+                return closeDecimal(offset(index));
+            }
+        };
+    }
+
+    private abstract static class ColumnView<T> extends AbstractList<T> implements RandomAccess {
+        private final int fromIndex;
+        private final int size;
+
+        ColumnView(int fromIndex, int toIndex) {
+            this.fromIndex = fromIndex;
+            this.size = toIndex - fromIndex;
+        }
+
+        int offset(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return fromIndex + index;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private static BigDecimal toDecimal(double value) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value);
+    }
+
+    public static final class Builder {
+        private int[] epochDays;
+        private double[] open;
+        private double[] high;
+        private double[] low;
+        private double[] close;
+        private long[] volume;
+        private int size;
+        private boolean sorted = true;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            epochDays = new int[capacity];
+            open = new double[capacity];
+            high = new double[capacity];
+            low = new double[capacity];
+            close = new double[capacity];
+            volume = new long[capacity];
+        }
+
+        public Builder add(int epochDay, double o, double h, double l, double c, long v) {
+            if (size == epochDays.length) {
+                grow();
+            }
+            if (size > 0 && epochDay < epochDays[size - 1]) {
+                sorted = false;
+            }
+            epochDays[size] = epochDay;
+            open[size] = o;
+            high[size] = h;
+            low[size] = l;
+            close[size] = c;
+            volume[size] = v;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Add a bar, replacing the last one if it has the same date
+         */
+        private void upsert(int epochDay, double o, double h, double l, double c, long v) {
+            if (size > 0 && epochDays[size - 1] == epochDay) {
+                size--;
+            }
+            add(epochDay, o, h, l, c, v);
+        }
+
+        public PriceSeries build() {
+            return build(null);
+        }
+
+        private PriceSeries build(PriceSeries appendedTo) {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (!sorted) {
+                sortByDate();
+            }
+            return new PriceSeries(
+                Arrays.copyOf(epochDays, size),
+                Arrays.copyOf(open, size),
+                Arrays.copyOf(high, size),
+                Arrays.copyOf(low, size),
+                Arrays.copyOf(close, size),
+                Arrays.copyOf(volume, size),
+                appendedTo);
+        }
+
+        private void grow() {
+            int capacity = epochDays.length * 2;
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            open = Arrays.copyOf(open, capacity);
+            high = Arrays.copyOf(high, capacity);
+            low = Arrays.copyOf(low, capacity);
+            close = Arrays.copyOf(close, capacity);
+            volume = Arrays.copyOf(volume, capacity);
+        }
+
+        /**
+         * Stable sort of all columns by date (input is normally already sorted)
+         */
+        private void sortByDate() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(epochDays[a], epochDays[b]));
+
+            int[] d = new int[size];
+            double[] o = new double[size];
+            double[] h = new double[size];
+            double[] l = new double[size];
+            double[] c = new double[size];
+            long[] v = new long[size];
+            for (int i = 0; i < size; i++) {
+                int from = order[i];
+                d[i] = epochDays[from];
+                o[i] = open[from];
+                h[i] = high[from];
+                l[i] = low[from];
+                c[i] = close[from];
+                v[i] = volume[from];
+            }
+            epochDays = d;
+            open = o;
+            high = h;
+            low = l;
+            close = c;
+            volume = v;
+            sorted = true;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 티커 카탈로그 항목 (src/main/resources/tickers.json)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TickerInfo {
+    private String ticker;
+    private String name;
+
+    /**
+     * Investing.com 종목 ID - 없으면 일별 업데이트 대상에서 제외
+     */
+    private String investingId;
+
+    /**
+     * 기본 목록(/supported, /analysis/all)에 포함 여부
+     */
+    private boolean featured;
+
+    /**
+     * 메모리 예산을 넘어도 메모리에서 내리지 않음
+     */
+    private boolean pinned;
+}
@@ -0,0 +1,27 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 시계열을 로드하지 않고 조회할 수 있는 티커 메타데이터
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TickerMetadata {
+    private String ticker;
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    private int recordCount;
+
+    /**
+     * 데이터 버전 - 저장, 추가, 압축될 때마다 증가
+     */
+    private long version;
+}
@@ -0,0 +1,41 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 언더워터 곡선 (거래일마다 그날까지의 최고 종가 대비 하락률)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnderwaterCurve {
+    private String ticker;
+
+    /**
+     * 다운샘플링 전 거래일 수
+     */
+    private int totalPoints;
+
+    /**
+     * 날짜 레이블 (x축)
+     */
+    private List<String> labels;
+
+    /**
+     * 최고 종가 대비 하락률 (%, 0 이하)
+     */
+    private List<BigDecimal> drawdowns;
+
+    /**
+     * 전체 기간 중 가장 깊은 하락 (다운샘플링과 무관)
+     */
+    private String maxDrawdownDate;
+    private BigDecimal maxDrawdownPercent;
+}
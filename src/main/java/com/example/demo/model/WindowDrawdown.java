@@ -0,0 +1,41 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 임의 기간의 최대 낙폭 (고점 → 저점)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WindowDrawdown {
+    private String ticker;
+
+    /**
+     * 기간 내 첫/마지막 거래일
+     */
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    /**
+     * 최대 낙폭이 시작된 고점과 끝난 저점 (하락이 없으면 같은 날)
+     */
+    private LocalDate peakDate;
+    private BigDecimal peakPrice;
+    private LocalDate troughDate;
+    private BigDecimal troughPrice;
+    private BigDecimal drawdownPercent;
+
+    /**
+     * 기간 내 최고/최저 종가
+     */
+    private BigDecimal highPrice;
+    private BigDecimal lowPrice;
+}
@@ -0,0 +1,33 @@
+package com.example.demo.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Write-then-rename helper so readers only ever see complete files
+ */
+final class AtomicFiles {
+
+    @FunctionalInterface
+    interface Writer {
+        void write(Path path) throws IOException;
+    }
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Write to a temporary sibling and atomically move it over the target
+     */
+    static void write(Path target, Writer writer) throws IOException {
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            writer.write(temp);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
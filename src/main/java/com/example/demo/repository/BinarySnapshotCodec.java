@@ -0,0 +1,128 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PriceSeries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-width columnar snapshot of a {@link PriceSeries} ({@code <ticker>.bin})
+ *
+ * Layout (little endian):
+ * <pre>
+ * header  32 bytes  magic "PXSN", version, record count, first epoch day, last epoch day, reserved
+ * open    double[count]
+ * high    double[count]
+ * low     double[count]
+ * close   double[count]
+ * volume  long[count]
+ * date    int[count]   (epoch day)
+ * </pre>
+ * Columns are bulk-copied out of a read-only mapping, so opening a snapshot involves no parsing.
+ */
+class BinarySnapshotCodec implements SeriesCodec {
+
+    static final String EXTENSION = ".bin";
+    static final int MAGIC = 0x4E535850; // "PXSN"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 8 * 5 + 4;
+
+    @Override
+    public String extension() {
+        return EXTENSION;
+    }
+
+    @Override
+    public void write(Path path, PriceSeries series) throws IOException {
+        int n = series.size();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + n * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC)
+            .putInt(VERSION)
+            .putInt(n)
+            .putInt(n > 0 ? series.epochDay(0) : 0)
+            .putInt(n > 0 ? series.epochDay(n - 1) : 0)
+            .position(HEADER_BYTES);
+
+        for (int i = 0; i < n; i++) buffer.putDouble(series.open(i));
+        for (int i = 0; i < n; i++) buffer.putDouble(series.high(i));
+        for (int i = 0; i < n; i++) buffer.putDouble(series.low(i));
+        for (int i = 0; i < n; i++) buffer.putDouble(series.close(i));
+        for (int i = 0; i < n; i++) buffer.putLong(series.volume(i));
+        for (int i = 0; i < n; i++) buffer.putInt(series.epochDay(i));
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    @Override
+    public Header readHeader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the header is complete or EOF
+            }
+            buffer.flip();
+            return parseHeader(buffer, channel.size());
+        }
+    }
+
+    @Override
+    public PriceSeries read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            Header header = parseHeader(mapped, channel.size());
+            int n = header.recordCount();
+
+            double[] open = new double[n];
+            double[] high = new double[n];
+            double[] low = new double[n];
+            double[] close = new double[n];
+            long[] volume = new long[n];
+            int[] epochDays = new int[n];
+
+            int offset = HEADER_BYTES;
+            mapped.slice(offset, n * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(open);
+            offset += n * 8;
+            mapped.slice(offset, n * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(high);
+            offset += n * 8;
+            mapped.slice(offset, n * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(low);
+            offset += n * 8;
+            mapped.slice(offset, n * 8).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(close);
+            offset += n * 8;
+            mapped.slice(offset, n * 8).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(volume);
+            offset += n * 8;
+            mapped.slice(offset, n * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(epochDays);
+
+            return PriceSeries.wrap(epochDays, open, high, low, close, volume);
+        }
+    }
+
+    private static Header parseHeader(ByteBuffer buffer, long fileSize) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a price series snapshot");
+        }
+
+        Header header = new Header(buffer.getInt(4), buffer.getInt(8), buffer.getInt(12), buffer.getInt(16));
+        if (header.version() != VERSION) {
+            throw new IOException("Unsupported snapshot version " + header.version());
+        }
+        if (header.recordCount() < 0 || fileSize != HEADER_BYTES + (long) header.recordCount() * RECORD_BYTES) {
+            throw new IOException("Snapshot is truncated or corrupt");
+        }
+        return header;
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PriceSeries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Compact delta/varint snapshot of a {@link PriceSeries} ({@code <ticker>.pxd})
+ *
+ * Layout (little endian):
+ * <pre>
+ * header  32 bytes  magic "PXDV", version, record count, first epoch day, last epoch day,
+ *                   price scale (decimal digits), records per block, block count
+ * block*  record count (int), payload length (int), CRC32 of payload (int), payload
+ * </pre>
+ * Every block starts from absolute values so it can be verified and decoded on its own.
+ * Within a block each bar is stored as varints:
+ * date delta in days, then zig-zag deltas of open/high/low/close in fixed-point units
+ * of 10^-scale and of volume, each against the previous bar.
+ * <p>
+ * Dates are deltas in calendar days, not trading days. Trading-day deltas would need an exchange
+ * calendar to decode, which the repository does not have, and the data is not strictly on one:
+ * imports keep whatever days the source exported. A calendar-day gap across a weekend or holiday
+ * (1 to 4 days) still fits in one varint byte, so trading-day deltas would not make files smaller.
+ * Prices likewise use the smallest scale of at least two decimals (cents) that holds every price exactly.
+ */
+class DeltaVarintCodec implements SeriesCodec {
+
+    static final String EXTENSION = ".pxd";
+    static final int MAGIC = 0x56445850; // "PXDV"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int BLOCK_HEADER_BYTES = 12;
+    static final int RECORDS_PER_BLOCK = 1024;
+
+    /**
+     * date, open, high, low, close, volume
+     */
+    private static final int FIELDS = 6;
+
+    private static final int MIN_SCALE = 2;
+    private static final int MAX_SCALE = 6;
+    private static final double[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    @Override
+    public String extension() {
+        return EXTENSION;
+    }
+
+    @Override
+    public void write(Path path, PriceSeries series) throws IOException {
+        int n = series.size();
+        int scale = priceScale(series);
+        double factor = POWERS_OF_TEN[scale];
+        int blockCount = (n + RECORDS_PER_BLOCK - 1) / RECORDS_PER_BLOCK;
+
+        // Worst case per bar: 5 bytes date + 4 prices and volume at 10 bytes each
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + blockCount * BLOCK_HEADER_BYTES + n * 55)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+            .putInt(VERSION)
+            .putInt(n)
+            .putInt(n > 0 ? series.epochDay(0) : 0)
+            .putInt(n > 0 ? series.epochDay(n - 1) : 0)
+            .putInt(scale)
+            .putInt(RECORDS_PER_BLOCK)
+            .putInt(blockCount);
+
+        CRC32 crc = new CRC32();
+        for (int start = 0; start < n; start += RECORDS_PER_BLOCK) {
+            int end = Math.min(n, start + RECORDS_PER_BLOCK);
+            int blockHeader = buffer.position();
+            buffer.position(blockHeader + BLOCK_HEADER_BYTES);
+
+            int day = 0;
+            long open = 0;
+            long high = 0;
+            long low = 0;
+            long close = 0;
+            long volume = 0;
+            for (int i = start; i < end; i++) {
+                long o = Math.round(series.open(i) * factor);
+                long h = Math.round(series.high(i) * factor);
+                long l = Math.round(series.low(i) * factor);
+                long c = Math.round(series.close(i) * factor);
+                long v = series.volume(i);
+
+                // The first bar of a block is stored against zero, i.e. absolute
+                putVarint(buffer, zigZag(series.epochDay(i) - (long) day));
+                putVarint(buffer, zigZag(o - open));
+                putVarint(buffer, zigZag(h - high));
+                putVarint(buffer, zigZag(l - low));
+                putVarint(buffer, zigZag(c - close));
+                putVarint(buffer, zigZag(v - volume));
+
+                day = series.epochDay(i);
+                open = o;
+                high = h;
+                low = l;
+                close = c;
+                volume = v;
+            }
+
+            int payloadStart = blockHeader + BLOCK_HEADER_BYTES;
+            int payloadLength = buffer.position() - payloadStart;
+            crc.reset();
+            crc.update(buffer.array(), payloadStart, payloadLength);
+            buffer.putInt(blockHeader, end - start)
+                .putInt(blockHeader + 4, payloadLength)
+                .putInt(blockHeader + 8, (int) crc.getValue());
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    @Override
+    public Header readHeader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the header is complete or EOF
+            }
+            buffer.flip();
+            return parseHeader(buffer);
+        }
+    }
+
+    @Override
+    public PriceSeries read(Path path) throws IOException {
+        return decode(Files.readAllBytes(path));
+    }
+
+    PriceSeries decode(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        Header header = parseHeader(buffer);
+        int n = header.recordCount();
+        int scale = buffer.getInt(20);
+        int blockCount = buffer.getInt(28);
+        if (scale < 0 || scale > MAX_SCALE || blockCount < 0) {
+            throw new IOException("Snapshot header is corrupt");
+        }
+        double factor = POWERS_OF_TEN[scale];
+
+        int[] epochDays = new int[n];
+        double[] opens = new double[n];
+        double[] highs = new double[n];
+        double[] lows = new double[n];
+        double[] closes = new double[n];
+        long[] volumes = new long[n];
+
+        CRC32 crc = new CRC32();
+        long[] values = new long[FIELDS];
+        int index = 0;
+        int position = HEADER_BYTES;
+        for (int block = 0; block < blockCount; block++) {
+            if (position + BLOCK_HEADER_BYTES > bytes.length) {
+                throw new IOException("Snapshot is truncated");
+            }
+            int records = buffer.getInt(position);
+            int payloadLength = buffer.getInt(position + 4);
+            int checksum = buffer.getInt(position + 8);
+            int payloadStart = position + BLOCK_HEADER_BYTES;
+            if (records < 0 || index + records > n || payloadLength < 0 || payloadStart + payloadLength > bytes.length) {
+                throw new IOException("Snapshot is truncated or corrupt");
+            }
+
+            crc.reset();
+            crc.update(bytes, payloadStart, payloadLength);
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Checksum mismatch in block " + block);
+            }
+
+            int cursor = payloadStart;
+            int payloadEnd = payloadStart + payloadLength;
+            Arrays.fill(values, 0L);
+            for (int r = 0; r < records; r++, index++) {
+                for (int field = 0; field < FIELDS; field++) {
+                    long varint = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        if (cursor >= payloadEnd || shift > 63) {
+                            throw new IOException("Malformed varint in block " + block);
+                        }
+                        b = bytes[cursor++];
+                        varint |= (long) (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    values[field] += unZigZag(varint);
+                }
+
+                epochDays[index] = (int) values[0];
+                opens[index] = values[1] / factor;
+                highs[index] = values[2] / factor;
+                lows[index] = values[3] / factor;
+                closes[index] = values[4] / factor;
+                volumes[index] = values[5];
+            }
+            if (cursor != payloadEnd) {
+                throw new IOException("Block " + block + " length does not match its records");
+            }
+            position = payloadStart + payloadLength;
+        }
+
+        if (index != n || position != bytes.length) {
+            throw new IOException("Snapshot is truncated or corrupt");
+        }
+        return PriceSeries.wrap(epochDays, opens, highs, lows, closes, volumes);
+    }
+
+    private static Header parseHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a delta/varint price series snapshot");
+        }
+        Header header = new Header(buffer.getInt(4), buffer.getInt(8), buffer.getInt(12), buffer.getInt(16));
+        if (header.version() != VERSION) {
+            throw new IOException("Unsupported snapshot version " + header.version());
+        }
+        if (header.recordCount() < 0) {
+            throw new IOException("Snapshot header is corrupt");
+        }
+        return header;
+    }
+
+    /**
+     * Smallest number of decimal digits that represents every price exactly
+     */
+    private static int priceScale(PriceSeries series) throws IOException {
+        for (int scale = MIN_SCALE; scale <= MAX_SCALE; scale++) {
+            if (representable(series, POWERS_OF_TEN[scale])) {
+                return scale;
+            }
+        }
+        throw new IOException("Prices need more than " + MAX_SCALE + " decimal digits");
+    }
+
+    private static boolean representable(PriceSeries series, double factor) {
+        for (int i = 0; i < series.size(); i++) {
+            if (!exact(series.open(i), factor) || !exact(series.high(i), factor)
+                    || !exact(series.low(i), factor) || !exact(series.close(i), factor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean exact(double price, double factor) {
+        double scaled = price * factor;
+        return Math.abs(scaled) < 1e15 && Math.round(scaled) / factor == price;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PriceSeries;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Byte-level reader for Investing.com historical data exports
+ *
+ * Handles the quirks of the Korean export:
+ * <pre>
+ * "날짜","종가","시가","고가","저가","거래량","변동 %"
+ * "2025- 11- 14","608.86","599.55","613.35","597.17","80.09M","0.08%"
+ * </pre>
+ * quoted fields, spaces inside dates, K/M/B volume suffixes, thousands separators,
+ * a UTF-8 BOM and newest-first order. The English export ("Date","Price","Open",...) works too.
+ * Rows are parsed straight from the file bytes into {@link PriceSeries.Builder} columns;
+ * only the header line is decoded to a String. Rows without a volume are placeholders
+ * for non-trading days and are skipped.
+ */
+@Slf4j
+public final class InvestingCsvReader {
+
+    private static final int FIELDS = 7;
+    private static final int EXPECTED_ROWS = 4096;
+    /**
+     * Digits whose integer value stays below 2^53, i.e. is an exact double
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private InvestingCsvReader() {
+    }
+
+    public static PriceSeries read(Path path) throws IOException {
+        return parse(Files.readAllBytes(path), path.getFileName().toString());
+    }
+
+    static PriceSeries parse(byte[] bytes, String source) throws IOException {
+        int position = 0;
+        if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF) {
+            position = 3;
+        }
+
+        int headerEnd = lineEnd(bytes, position);
+        int[] columns = columnIndexes(new String(bytes, position, headerEnd - position, StandardCharsets.UTF_8), source);
+        position = nextLine(bytes, headerEnd);
+
+        PriceSeries.Builder builder = PriceSeries.builder(EXPECTED_ROWS);
+        int[] fieldStart = new int[FIELDS];
+        int[] fieldEnd = new int[FIELDS];
+        int line = 2;
+        int skipped = 0;
+
+        while (position < bytes.length) {
+            int end = lineEnd(bytes, position);
+            if (end > position) {
+                if (splitFields(bytes, position, end, fieldStart, fieldEnd) < 6) {
+                    throw new IOException("Too few fields on line " + line + " of " + source);
+                }
+
+                long volume = parseVolume(bytes, fieldStart[columns[5]], fieldEnd[columns[5]]);
+                if (volume < 0) {
+                    skipped++;
+                } else {
+                    try {
+                        builder.add(
+                            parseDate(bytes, fieldStart[columns[0]], fieldEnd[columns[0]]),
+                            parsePrice(bytes, fieldStart[columns[2]], fieldEnd[columns[2]]),
+                            parsePrice(bytes, fieldStart[columns[3]], fieldEnd[columns[3]]),
+                            parsePrice(bytes, fieldStart[columns[4]], fieldEnd[columns[4]]),
+                            parsePrice(bytes, fieldStart[columns[1]], fieldEnd[columns[1]]),
+                            volume);
+                    } catch (NumberFormatException | DateTimeException e) {
+                        throw new IOException("Malformed value on line " + line + " of " + source + ": " + e.getMessage(), e);
+                    }
+                }
+            }
+            position = nextLine(bytes, end);
+            line++;
+        }
+
+        if (skipped > 0) {
+            log.debug("Skipped {} rows without volume in {}", skipped, source);
+        }
+        // Sorts the newest-first export and keeps the last bar of a repeated date
+        return PriceSeries.empty().mergeWith(builder.build());
+    }
+
+    /**
+     * Indexes of date, close, open, high, low and volume columns
+     */
+    private static int[] columnIndexes(String header, String source) throws IOException {
+        int[] columns = {-1, -1, -1, -1, -1, -1};
+        String[] names = header.split(",");
+        for (int i = 0; i < names.length && i < FIELDS; i++) {
+            String name = names[i].replace("\"", "").trim();
+            switch (name) {
+                case "날짜", "Date" -> columns[0] = i;
+                case "종가", "Price", "Close" -> columns[1] = i;
+                case "시가", "Open" -> columns[2] = i;
+                case "고가", "High" -> columns[3] = i;
+                case "저가", "Low" -> columns[4] = i;
+                case "거래량", "Vol.", "Volume" -> columns[5] = i;
+                default -> {
+                    // change % and unknown columns are ignored
+                }
+            }
+        }
+        for (int column : columns) {
+            if (column < 0) {
+                throw new IOException("Unexpected header in " + source + ": " + header);
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Record the content bounds of each field, without quotes
+     * @return number of fields found
+     */
+    private static int splitFields(byte[] bytes, int from, int to, int[] fieldStart, int[] fieldEnd) {
+        int count = 0;
+        int position = from;
+        while (position <= to && count < FIELDS) {
+            if (position < to && bytes[position] == '"') {
+                int start = position + 1;
+                int end = start;
+                while (end < to && bytes[end] != '"') {
+                    end++;
+                }
+                fieldStart[count] = start;
+                fieldEnd[count] = end;
+                position = end + 1;
+                while (position < to && bytes[position] != ',') {
+                    position++;
+                }
+            } else {
+                int start = position;
+                while (position < to && bytes[position] != ',') {
+                    position++;
+                }
+                fieldStart[count] = start;
+                fieldEnd[count] = position;
+            }
+            count++;
+            position++; // skip the comma
+        }
+        return count;
+    }
+
+    /**
+     * "2025- 11- 14" or "2025-11-14"; "11/14/2025" from the English export
+     */
+    static int parseDate(byte[] bytes, int from, int to) {
+        int first = 0;
+        int second = 0;
+        int current = 0;
+        int part = 0;
+        boolean inNumber = false;
+        boolean slashes = false;
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                current = current * 10 + (b - '0');
+                inNumber = true;
+            } else if (b == '-' || b == '/') {
+                slashes |= b == '/';
+                if (!inNumber || part == 2) {
+                    throw new NumberFormatException("Malformed date");
+                }
+                if (part == 0) {
+                    first = current;
+                } else {
+                    second = current;
+                }
+                part++;
+                current = 0;
+                inNumber = false;
+            } else if (b != ' ') {
+                throw new NumberFormatException("Unexpected character in date");
+            }
+        }
+        if (part != 2 || !inNumber) {
+            throw new NumberFormatException("Incomplete date");
+        }
+
+        int year = slashes ? current : first;
+        int month = slashes ? first : second;
+        int day = slashes ? second : current;
+        if (month >= 1 && month <= 12 && day >= 1 && day <= 28) {
+            return JsonPriceSeriesReader.epochDay(year, month, day);
+        }
+        // Let LocalDate validate month-end days
+        return (int) LocalDate.of(year, month, day).toEpochDay();
+    }
+
+    /**
+     * Decimal price with optional thousands separators, e.g. "1,234.56"
+     * Up to 15 digits are accumulated as an integer and scaled once: both operands are exact doubles,
+     * so the single division gives the same correctly rounded double as {@link Double#parseDouble(String)}.
+     * Longer prices are handed to {@link Double#parseDouble(String)}.
+     */
+    static double parsePrice(byte[] bytes, int from, int to) {
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1;
+        boolean negative = false;
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (b == '-' && digits == 0) {
+                negative = true;
+            } else if (b != ',' && b != ' ') {
+                throw new NumberFormatException("Unexpected character in price");
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid price");
+        }
+        if (digits > MAX_EXACT_DIGITS) {
+            return Double.parseDouble(withoutSeparators(bytes, from, to));
+        }
+
+        double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static String withoutSeparators(byte[] bytes, int from, int to) {
+        StringBuilder number = new StringBuilder(to - from);
+        for (int i = from; i < to; i++) {
+            if (bytes[i] != ',' && bytes[i] != ' ') {
+                number.append((char) bytes[i]);
+            }
+        }
+        return number.toString();
+    }
+
+    /**
+     * Volume with optional K/M/B suffix, e.g. "80.09M" -> 80090000, computed exactly in integers
+     * @return -1 if the field is empty or "-"
+     */
+    static long parseVolume(byte[] bytes, int from, int to) {
+        while (from < to && bytes[from] == ' ') {
+            from++;
+        }
+        while (to > from && bytes[to - 1] == ' ') {
+            to--;
+        }
+        if (from == to || (to - from == 1 && bytes[from] == '-')) {
+            return -1;
+        }
+
+        long multiplier = switch (bytes[to - 1]) {
+            case 'K', 'k' -> 1_000L;
+            case 'M', 'm' -> 1_000_000L;
+            case 'B', 'b' -> 1_000_000_000L;
+            default -> 1L;
+        };
+        if (multiplier != 1L) {
+            to--;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (b != ',') {
+                throw new NumberFormatException("Unexpected character in volume");
+            }
+        }
+        if (digits == 0 || digits > 18) {
+            throw new NumberFormatException("Invalid volume");
+        }
+
+        for (int i = 0; i < Math.max(decimals, 0); i++) {
+            if (multiplier % 10 == 0) {
+                multiplier /= 10;
+            } else {
+                mantissa /= 10; // more decimals than the suffix can hold; drop fractions of a share
+            }
+        }
+        return mantissa * multiplier;
+    }
+
+    private static int lineEnd(byte[] bytes, int from) {
+        int position = from;
+        while (position < bytes.length && bytes[position] != '\n' && bytes[position] != '\r') {
+            position++;
+        }
+        return position;
+    }
+
+    private static int nextLine(byte[] bytes, int lineEnd) {
+        int position = lineEnd;
+        if (position < bytes.length && bytes[position] == '\r') {
+            position++;
+        }
+        if (position < bytes.length && bytes[position] == '\n') {
+            position++;
+        }
+        return position;
+    }
+}
@@ -1,41 +1,157 @@
 package com.example.demo.repository;
 
+import com.example.demo.model.PriceSeries;
 import com.example.demo.model.StockData;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.example.demo.model.TickerMetadata;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.core.util.Separators;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Repository
 public class JsonDataRepository {
 
-    private static final String DATA_DIR = "src/main/resources/data";
+    private static final String DEFAULT_DATA_DIR = "src/main/resources/data";
+    private static final String JSON_EXTENSION = ".json";
+    private static final String ANALYSIS_SUFFIX = "_analysis" + JSON_EXTENSION;
+
+    /**
+     * Layout of the bundled data files (two-space indent, {@code "key": value}), so that
+     * rewriting unchanged bars leaves the tracked files byte-identical
+     */
+    private static final DefaultPrettyPrinter DATA_FILE_PRINTER = new DefaultPrettyPrinter(
+            Separators.createDefaultInstance().withObjectFieldValueSpacing(Separators.Spacing.AFTER))
+        .withArrayIndenter(new DefaultIndenter("  ", "\n"))
+        .withObjectIndenter(new DefaultIndenter("  ", "\n"));
+
+    private final Path dataDir;
     private final ObjectMapper objectMapper;
+    private final JsonPriceSeriesReader jsonReader;
+    private final SegmentStore segmentStore;
+    private final SeriesCodec snapshotCodec;
+    private final long memoryBudgetBytes;
+
+    /**
+     * Latest published version per ticker. Readers only do a volatile read;
+     * writers build a complete new series and swap it in.
+     */
+    private final Map<String, Slot> published = new ConcurrentHashMap<>();
+    private final AtomicLong accessClock = new AtomicLong();
+
+    /**
+     * Tickers that stay resident regardless of the memory budget
+     */
+    private final Set<String> pinned = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Metadata of every ticker seen so far, kept even when its series is evicted
+     */
+    private final Map<String, Indexed> metadataIndex = new ConcurrentHashMap<>();
+
+    private final Map<String, Object> writeLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Metadata entry with the JSON file state it was built from, so that an external change is
+     * noticed whether or not the series is still resident
+     * @param jsonModified last-modified time of the JSON file when the entry was built
+     */
+    private record Indexed(TickerMetadata metadata, long jsonModified) {
+    }
+
+    /**
+     * Immutable published version of a ticker's data
+     * @param jsonModified last-modified time of the JSON file this version corresponds to
+     * @param version      data version, see {@link TickerMetadata#getVersion()}
+     */
+    private record Snapshot(PriceSeries series, long jsonModified, long version) {
+    }
+
+    private static final class Slot {
+        final AtomicReference<Snapshot> current = new AtomicReference<>();
+        volatile long lastAccess;
+
+        long residentBytes() {
+            Snapshot snapshot = current.get();
+            return snapshot != null ? snapshot.series().estimatedBytes() : 0;
+        }
+    }
 
-    public JsonDataRepository() {
+    /**
+     * @param dataDir           directory of the JSON files, snapshots and update segments
+     * @param snapshotCodec     "binary" for fixed-width columns (fastest open),
+     *                          "delta" for delta/varint blocks (smallest on disk)
+     * @param memoryBudgetBytes upper bound for resident series; least recently used
+     *                          unpinned tickers are evicted beyond it
+     */
+    @Autowired
+    public JsonDataRepository(@Value("${data.dir:" + DEFAULT_DATA_DIR + "}") String dataDir,
+                              @Value("${data.snapshot.codec:binary}") String snapshotCodec,
+                              @Value("${data.cache.max-bytes:268435456}") long memoryBudgetBytes) {
+        this.dataDir = Paths.get(dataDir);
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
+        // Keep dates as "yyyy-MM-dd" like the bundled data files
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.jsonReader = new JsonPriceSeriesReader(objectMapper.getFactory());
+        this.segmentStore = new SegmentStore(this.dataDir.resolve("segments"));
+        this.snapshotCodec = switch (snapshotCodec) {
+            case "binary" -> new BinarySnapshotCodec();
+            case "delta" -> new DeltaVarintCodec();
+            default -> throw new IllegalArgumentException("Unknown snapshot codec: " + snapshotCodec);
+        };
+        this.memoryBudgetBytes = memoryBudgetBytes;
 
         // Create data directory if it doesn't exist
-        File dir = new File(DATA_DIR);
+        File dir = this.dataDir.toFile();
         if (!dir.exists()) {
             dir.mkdirs();
         }
     }
 
+    /**
+     * Replace all data of a ticker, including any pending update segments
+     */
     public void saveStockData(String ticker, List<StockData> stockDataList) {
+        saveSeries(ticker, PriceSeries.fromStockData(stockDataList));
+    }
+
+    /**
+     * Replace all data of a ticker with an already-built series
+     * Writes of different tickers run concurrently; writes of one ticker are serialized.
+     */
+    public void saveSeries(String ticker, PriceSeries series) {
         try {
-            File file = new File(DATA_DIR + "/" + ticker + ".json");
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, stockDataList);
-            log.info("Saved {} records for {}", stockDataList.size(), ticker);
+            synchronized (writeLock(ticker)) {
+                List<Path> segments = segmentStore.list(ticker);
+                long jsonModified = writeBase(ticker, series);
+                segmentStore.delete(segments);
+                publish(ticker, series, jsonModified);
+            }
+            log.info("Saved {} records for {}", series.size(), ticker);
         } catch (IOException e) {
             log.error("Error saving stock data for {}", ticker, e);
             throw new RuntimeException("Failed to save stock data", e);
@@ -43,31 +159,384 @@ public class JsonDataRepository {
     }
 
     public List<StockData> loadStockData(String ticker) {
+        return new ArrayList<>(loadPriceSeries(ticker).toStockDataList());
+    }
+
+    /**
+     * Load stock data as a columnar series (dates ascending), with update segments applied
+     * Returns the published version without touching disk when one is resident.
+     */
+    public PriceSeries loadPriceSeries(String ticker) {
+        Slot slot = published.get(ticker);
+        if (slot != null) {
+            Snapshot snapshot = slot.current.get();
+            if (snapshot != null) {
+                slot.lastAccess = accessClock.incrementAndGet();
+                return snapshot.series();
+            }
+        }
+
+        long jsonModified = jsonFile(ticker).lastModified();
+        long version = diskVersion(ticker);
+        PriceSeries series = readFromDisk(ticker);
+        if (series.isEmpty()) {
+            return series;
+        }
+
+        // A writer may have published a newer version while we were reading; keep theirs
+        Slot target = slotFor(ticker);
+        if (target.current.compareAndSet(null, new Snapshot(series, jsonModified, version))) {
+            index(ticker, series, version, jsonModified);
+            enforceMemoryBudget(ticker);
+            return series;
+        }
+        Snapshot newer = target.current.get();
+        return newer != null ? newer.series() : series;
+    }
+
+    /**
+     * Load only the bars dated within [from, to]; either bound may be null
+     * The JSON path skips rows before the range and stops reading after it.
+     */
+    public PriceSeries loadPriceSeries(String ticker, LocalDate from, LocalDate to) {
+        long fromDay = from != null ? from.toEpochDay() : Integer.MIN_VALUE;
+        long toDay = to != null ? to.toEpochDay() : Integer.MAX_VALUE;
+
+        if (isResident(ticker) || hasSegments(ticker) || isSnapshotCurrent(jsonFile(ticker), snapshotFile(ticker))) {
+            PriceSeries series = loadPriceSeries(ticker);
+            return series.slice(series.lowerBound(fromDay), series.upperBound(toDay));
+        }
+        return readJson(ticker, fromDay, toDay);
+    }
+
+    /**
+     * Metadata of a ticker without loading its series when possible
+     * Served from the index, else from the snapshot header; only a ticker without a
+     * current snapshot, or with pending update segments, is loaded once to build it.
+     */
+    public Optional<TickerMetadata> getMetadata(String ticker) {
+        Indexed indexed = metadataIndex.get(ticker);
+        if (indexed != null) {
+            return Optional.of(indexed.metadata());
+        }
+
+        File snapshotFile = snapshotFile(ticker);
+        long jsonModified = jsonFile(ticker).lastModified();
+        if (!hasSegments(ticker) && isSnapshotCurrent(jsonFile(ticker), snapshotFile)) {
+            long version = diskVersion(ticker);
+            try {
+                SeriesCodec.Header header = snapshotCodec.readHeader(snapshotFile.toPath());
+                TickerMetadata metadata = TickerMetadata.builder()
+                    .ticker(ticker)
+                    .firstDate(header.recordCount() > 0 ? LocalDate.ofEpochDay(header.firstEpochDay()) : null)
+                    .lastDate(header.recordCount() > 0 ? LocalDate.ofEpochDay(header.lastEpochDay()) : null)
+                    .recordCount(header.recordCount())
+                    .version(version)
+                    .build();
+                metadataIndex.putIfAbsent(ticker, new Indexed(metadata, jsonModified));
+                return Optional.of(metadataIndex.get(ticker).metadata());
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable snapshot header for {}: {}", ticker, e.getMessage());
+            }
+        }
+
+        if (!hasData(ticker) || loadPriceSeries(ticker).isEmpty()) {
+            return Optional.empty();
+        }
+        Indexed loaded = metadataIndex.get(ticker);
+        return Optional.ofNullable(loaded != null ? loaded.metadata() : null);
+    }
+
+    /**
+     * Tickers that have data on disk: a JSON file, a snapshot or update segments
+     */
+    public Set<String> listTickers() {
+        Set<String> tickers = new TreeSet<>();
+        String snapshotExtension = snapshotCodec.extension();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(getDataDirectory())) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(ANALYSIS_SUFFIX)) {
+                    continue;
+                }
+                if (fileName.endsWith(JSON_EXTENSION)) {
+                    tickers.add(fileName.substring(0, fileName.length() - JSON_EXTENSION.length()));
+                } else if (fileName.endsWith(snapshotExtension)) {
+                    tickers.add(fileName.substring(0, fileName.length() - snapshotExtension.length()));
+                }
+            }
+            tickers.addAll(segmentStore.tickers());
+        } catch (IOException e) {
+            log.error("Error listing data directory", e);
+        }
+        return tickers;
+    }
+
+    /**
+     * Keep a ticker resident regardless of the memory budget
+     */
+    public void pin(String ticker) {
+        pinned.add(ticker);
+    }
+
+    public void unpin(String ticker) {
+        pinned.remove(ticker);
+    }
+
+    /**
+     * Drop the resident version of a ticker so the next load reads disk
+     */
+    public void evict(String ticker) {
+        metadataIndex.remove(ticker);
+        if (published.remove(ticker) != null) {
+            log.info("Evicted resident data for {}", ticker);
+        }
+    }
+
+    /**
+     * Drop the resident version and the metadata only if the JSON file changed since they were built,
+     * e.g. because the files were replaced by hand
+     * The metadata is checked on its own: it outlives the series when the memory budget evicts it.
+     */
+    public void evictIfModified(String ticker) {
+        long jsonModified = jsonFile(ticker).lastModified();
+        Slot slot = published.get(ticker);
+        Snapshot snapshot = slot != null ? slot.current.get() : null;
+        if (snapshot != null && snapshot.jsonModified() != jsonModified) {
+            published.remove(ticker, slot);
+            log.info("Evicted resident data for {} after external change", ticker);
+        }
+        Indexed indexed = metadataIndex.get(ticker);
+        if (indexed != null && indexed.jsonModified() != jsonModified && metadataIndex.remove(ticker, indexed)) {
+            log.info("Dropped metadata of {} after external change", ticker);
+        }
+    }
+
+    public void evictAll() {
+        published.clear();
+        metadataIndex.clear();
+        log.info("Evicted all resident data");
+    }
+
+    /**
+     * Published series of a ticker, or null when it is not resident
+     */
+    private PriceSeries residentSeries(String ticker) {
+        Slot slot = published.get(ticker);
+        Snapshot snapshot = slot != null ? slot.current.get() : null;
+        return snapshot != null ? snapshot.series() : null;
+    }
+
+    private boolean isResident(String ticker) {
+        Slot slot = published.get(ticker);
+        return slot != null && slot.current.get() != null;
+    }
+
+    /**
+     * Publish a new version written by this process
+     * The version is bumped even when the file timestamps did not move, e.g. two appends
+     * within the same millisecond.
+     */
+    private void publish(String ticker, PriceSeries series, long jsonModified) {
+        Indexed previous = metadataIndex.get(ticker);
+        long version = Math.max(diskVersion(ticker), previous != null ? previous.metadata().getVersion() + 1 : 0);
+        slotFor(ticker).current.set(new Snapshot(series, jsonModified, version));
+        index(ticker, series, version, jsonModified);
+        enforceMemoryBudget(ticker);
+    }
+
+    private void index(String ticker, PriceSeries series, long version, long jsonModified) {
+        metadataIndex.put(ticker, new Indexed(TickerMetadata.builder()
+            .ticker(ticker)
+            .firstDate(series.firstDate())
+            .lastDate(series.lastDate())
+            .recordCount(series.size())
+            .version(version)
+            .build(), jsonModified));
+    }
+
+    private Object writeLock(String ticker) {
+        return writeLocks.computeIfAbsent(ticker, key -> new Object());
+    }
+
+    private Slot slotFor(String ticker) {
+        Slot slot = published.computeIfAbsent(ticker, key -> new Slot());
+        slot.lastAccess = accessClock.incrementAndGet();
+        return slot;
+    }
+
+    /**
+     * Evict least recently used, unpinned tickers until the resident series fit the budget
+     * @param keep ticker that was just loaded and must stay resident
+     */
+    private void enforceMemoryBudget(String keep) {
+        long residentBytes = 0;
+        for (Slot slot : published.values()) {
+            residentBytes += slot.residentBytes();
+        }
+
+        while (residentBytes > memoryBudgetBytes) {
+            String eldest = null;
+            Slot eldestSlot = null;
+            for (Map.Entry<String, Slot> entry : published.entrySet()) {
+                String ticker = entry.getKey();
+                if (ticker.equals(keep) || pinned.contains(ticker)) {
+                    continue;
+                }
+                if (eldestSlot == null || entry.getValue().lastAccess < eldestSlot.lastAccess) {
+                    eldest = ticker;
+                    eldestSlot = entry.getValue();
+                }
+            }
+            if (eldest == null) {
+                // Only pinned tickers are left
+                return;
+            }
+            if (published.remove(eldest, eldestSlot)) {
+                residentBytes -= eldestSlot.residentBytes();
+                log.debug("Evicted least recently used data for {}", eldest);
+            }
+        }
+    }
+
+    /**
+     * Version of the data on disk: last-modified time of the newest file backing the series
+     */
+    private long diskVersion(String ticker) {
+        long version = jsonFile(ticker).lastModified();
+        try {
+            for (Path segment : segmentStore.list(ticker)) {
+                version = Math.max(version, Files.getLastModifiedTime(segment).toMillis());
+            }
+        } catch (IOException e) {
+            log.warn("Cannot read update segment times for {}: {}", ticker, e.getMessage());
+        }
+        return version;
+    }
+
+    /**
+     * Read segments first, then the base: a segment compacted in between is then already in the base
+     * Content hashes of the base and the result are computed here, while the bars are loaded anyway, so
+     * that state derived from an earlier instance with the same bars is recognized without rehashing
+     * (see {@link PriceSeries#knownPrefixHash(int)}).
+     */
+    private PriceSeries readFromDisk(String ticker) {
         try {
-            File file = new File(DATA_DIR + "/" + ticker + ".json");
+            List<Path> segments = segmentStore.list(ticker);
+            PriceSeries updates = segmentStore.read(segments);
+            PriceSeries base = loadBase(ticker);
+            base.contentHash();
+            if (segments.isEmpty()) {
+                return base;
+            }
+            PriceSeries merged = base.mergeWith(updates);
+            merged.contentHash();
+            log.info("Applied {} update segments to {} (total: {})", segments.size(), ticker, merged.size());
+            return merged;
+        } catch (IOException e) {
+            log.error("Error reading update segments for {}", ticker, e);
+            throw new RuntimeException("Failed to load stock data", e);
+        }
+    }
+
+    /**
+     * Load the base data only
+     * Reads the binary snapshot when it is at least as new as the JSON file,
+     * otherwise parses the JSON and refreshes the snapshot.
+     */
+    private PriceSeries loadBase(String ticker) {
+        File jsonFile = jsonFile(ticker);
+        File snapshotFile = snapshotFile(ticker);
+
+        if (isSnapshotCurrent(jsonFile, snapshotFile)) {
+            try {
+                PriceSeries series = snapshotCodec.read(snapshotFile.toPath());
+                log.info("Loaded {} records for {} from snapshot", series.size(), ticker);
+                return series;
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable snapshot for {}: {}", ticker, e.getMessage());
+            }
+        }
+
+        PriceSeries series = readJson(ticker, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (!series.isEmpty()) {
+            writeSnapshot(ticker, series);
+        }
+        return series;
+    }
+
+    private PriceSeries readJson(String ticker, long fromEpochDay, long toEpochDay) {
+        try {
+            File file = jsonFile(ticker);
             if (!file.exists()) {
                 log.warn("No data file found for {}", ticker);
-                return new ArrayList<>();
+                return PriceSeries.empty();
             }
 
-            List<StockData> data = objectMapper.readValue(file, new TypeReference<List<StockData>>() {});
-            log.info("Loaded {} records for {}", data.size(), ticker);
-            return data;
+            PriceSeries series = jsonReader.read(file, fromEpochDay, toEpochDay);
+            log.info("Loaded {} records for {}", series.size(), ticker);
+            return series;
         } catch (IOException e) {
             log.error("Error loading stock data for {}", ticker, e);
-            return new ArrayList<>();
+            throw new RuntimeException("Failed to load stock data", e);
+        }
+    }
+
+    private static boolean isSnapshotCurrent(File jsonFile, File snapshotFile) {
+        return snapshotFile.exists() && (!jsonFile.exists() || snapshotFile.lastModified() >= jsonFile.lastModified());
+    }
+
+    /**
+     * Write JSON and snapshot via atomic renames
+     * @return last-modified time of the new JSON file
+     */
+    private long writeBase(String ticker, PriceSeries series) throws IOException {
+        File file = jsonFile(ticker);
+        AtomicFiles.write(file.toPath(),
+            path -> objectMapper.writer(DATA_FILE_PRINTER).writeValue(path.toFile(), series.toStockDataList()));
+        writeSnapshot(ticker, series);
+        return file.lastModified();
+    }
+
+    private boolean hasSegments(String ticker) {
+        try {
+            return segmentStore.hasSegments(ticker);
+        } catch (IOException e) {
+            log.error("Error listing update segments for {}", ticker, e);
+            return false;
         }
     }
 
+    private void writeSnapshot(String ticker, PriceSeries series) {
+        try {
+            AtomicFiles.write(snapshotFile(ticker).toPath(), path -> snapshotCodec.write(path, series));
+            log.debug("Wrote snapshot with {} records for {}", series.size(), ticker);
+        } catch (IOException e) {
+            // The JSON file stays the source of truth; the next load falls back to it
+            log.warn("Failed to write snapshot for {}", ticker, e);
+        }
+    }
+
+    private File jsonFile(String ticker) {
+        return dataDir.resolve(ticker + JSON_EXTENSION).toFile();
+    }
+
+    private File snapshotFile(String ticker) {
+        return dataDir.resolve(ticker + snapshotCodec.extension()).toFile();
+    }
+
+    public Path getDataDirectory() {
+        return dataDir;
+    }
+
     public boolean hasData(String ticker) {
-        File file = new File(DATA_DIR + "/" + ticker + ".json");
-        return file.exists();
+        return isResident(ticker) || jsonFile(ticker).exists() || hasSegments(ticker);
     }
 
-    public void saveAnalysisCache(String ticker, Map<String, Object> analysis) {
+    public void saveAnalysisCache(String ticker, Object analysis) {
         try {
-            File file = new File(DATA_DIR + "/" + ticker + "_analysis.json");
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, analysis);
+            AtomicFiles.write(analysisFile(ticker).toPath(),
+                path -> objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), analysis));
             log.info("Saved analysis cache for {}", ticker);
         } catch (IOException e) {
             log.error("Error saving analysis cache for {}", ticker, e);
@@ -75,41 +544,93 @@ public class JsonDataRepository {
     }
 
     /**
-     * Append recent data to existing stock data, avoiding duplicates
+     * Read back what {@link #saveAnalysisCache} wrote; empty if missing or unreadable
      */
-    public void appendStockData(String ticker, List<StockData> newData) {
+    public <T> Optional<T> loadAnalysisCache(String ticker, Class<T> type) {
+        File file = analysisFile(ticker);
+        if (!file.exists()) {
+            return Optional.empty();
+        }
         try {
-            List<StockData> existingData = loadStockData(ticker);
+            return Optional.ofNullable(objectMapper.readValue(file, type));
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable analysis cache for {}: {}", ticker, e.getMessage());
+            return Optional.empty();
+        }
+    }
 
-            if (existingData.isEmpty()) {
+    private File analysisFile(String ticker) {
+        return dataDir.resolve(ticker + ANALYSIS_SUFFIX).toFile();
+    }
+
+    /**
+     * Append recent data to existing stock data
+     * The bars are written as a new update segment, so the disk cost does not depend on the history length.
+     * Bars for a date that already exists replace the stored bar.
+     */
+    public void appendStockData(String ticker, List<StockData> newData) {
+        try {
+            if (!hasData(ticker)) {
                 // No existing data, just save the new data
                 saveStockData(ticker, newData);
                 return;
             }
 
-            // Merge new data with existing, avoiding duplicates
-            List<StockData> mergedData = new ArrayList<>(existingData);
+            PriceSeries bars = PriceSeries.empty().mergeWith(PriceSeries.fromStockData(newData));
+            synchronized (writeLock(ticker)) {
+                long jsonModified = jsonFile(ticker).lastModified();
+                PriceSeries current = loadPriceSeries(ticker);
+                Path segment = segmentStore.append(ticker, bars);
+                publish(ticker, current.mergeWith(bars), jsonModified);
+                log.info("Appended {} records to {} as {}", bars.size(), ticker, segment.getFileName());
+            }
 
-            for (StockData newRecord : newData) {
-                boolean exists = existingData.stream()
-                    .anyMatch(existing -> existing.getDate().equals(newRecord.getDate()));
+        } catch (Exception e) {
+            log.error("Error appending stock data for {}", ticker, e);
+            throw new RuntimeException("Failed to append stock data", e);
+        }
+    }
 
-                if (!exists) {
-                    mergedData.add(newRecord);
+    /**
+     * Fold the update segments of a ticker into its base JSON file and snapshot
+     * @return number of segments compacted
+     */
+    public int compact(String ticker) {
+        try {
+            synchronized (writeLock(ticker)) {
+                List<Path> segments = segmentStore.list(ticker);
+                if (segments.isEmpty()) {
+                    return 0;
                 }
-            }
 
-            // Sort by date
-            mergedData.sort((a, b) -> a.getDate().compareTo(b.getDate()));
+                PriceSeries merged = loadBase(ticker).mergeWith(segmentStore.read(segments));
+                long jsonModified = writeBase(ticker, merged);
+                segmentStore.delete(segments);
 
-            // Save merged data
-            saveStockData(ticker, mergedData);
-            log.info("Appended {} new records to {} (total: {})",
-                mergedData.size() - existingData.size(), ticker, mergedData.size());
+                // Compaction moves bars between files without changing them: keep the resident instance,
+                // so that state derived from it (e.g. incremental analysis) stays valid
+                PriceSeries resident = residentSeries(ticker);
+                publish(ticker, resident != null && resident.contentHash() == merged.contentHash() ? resident : merged,
+                    jsonModified);
 
-        } catch (Exception e) {
-            log.error("Error appending stock data for {}", ticker, e);
-            throw new RuntimeException("Failed to append stock data", e);
+                log.info("Compacted {} segments into {} (total: {})", segments.size(), ticker, merged.size());
+                return segments.size();
+            }
+        } catch (IOException e) {
+            log.error("Error compacting segments for {}", ticker, e);
+            throw new RuntimeException("Failed to compact stock data", e);
+        }
+    }
+
+    /**
+     * Tickers that have update segments waiting for compaction
+     */
+    public List<String> getTickersWithSegments() {
+        try {
+            return segmentStore.tickers();
+        } catch (IOException e) {
+            log.error("Error listing update segments", e);
+            return List.of();
         }
     }
 }
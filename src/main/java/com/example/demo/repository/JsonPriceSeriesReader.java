@@ -0,0 +1,179 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PriceSeries;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Token-level reader for the {@code <ticker>.json} format
+ *
+ * Reads each row straight into {@link PriceSeries.Builder} columns, so no
+ * {@code StockData}, {@code BigDecimal} or {@code LocalDate} is created per row.
+ * Dates may be ISO strings ({@code "2010-01-04"}) or Jackson's array form ({@code [2010,1,4]}).
+ */
+class JsonPriceSeriesReader {
+
+    private static final int DAYS_0000_TO_1970 = 719528;
+    private static final int EXPECTED_ROWS = 4096;
+
+    private final JsonFactory jsonFactory;
+
+    JsonPriceSeriesReader(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    PriceSeries read(File file) throws IOException {
+        return read(file, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Read rows whose date lies within [fromEpochDay, toEpochDay].
+     * Rows before the range are skipped without parsing their prices, and reading
+     * stops at the first row past the range as long as the file has been in date order.
+     */
+    PriceSeries read(File file, long fromEpochDay, long toEpochDay) throws IOException {
+        PriceSeries.Builder builder = PriceSeries.builder(EXPECTED_ROWS);
+
+        try (JsonParser parser = jsonFactory.createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array in " + file);
+            }
+
+            int previousDay = Integer.MIN_VALUE;
+            boolean ascending = true;
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                int epochDay = Integer.MIN_VALUE;
+                double open = Double.NaN;
+                double high = Double.NaN;
+                double low = Double.NaN;
+                double close = Double.NaN;
+                long volume = 0L;
+                boolean skipped = false;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+
+                    switch (field) {
+                        case "date" -> epochDay = readEpochDay(parser, value);
+                        case "open" -> open = readDouble(parser, value);
+                        case "high" -> high = readDouble(parser, value);
+                        case "low" -> low = readDouble(parser, value);
+                        case "close" -> close = readDouble(parser, value);
+                        case "volume" -> volume = value == JsonToken.VALUE_NULL ? 0L : parser.getValueAsLong();
+                        default -> parser.skipChildren();
+                    }
+
+                    if (field.equals("date") && epochDay < fromEpochDay) {
+                        skipRestOfObject(parser);
+                        skipped = true;
+                        break;
+                    }
+                }
+
+                if (epochDay == Integer.MIN_VALUE) {
+                    throw new IOException("Row without date in " + file);
+                }
+
+                ascending &= epochDay >= previousDay;
+                previousDay = epochDay;
+
+                if (skipped || epochDay < fromEpochDay) {
+                    continue;
+                }
+                if (epochDay > toEpochDay) {
+                    if (ascending) {
+                        break;
+                    }
+                    continue;
+                }
+
+                builder.add(epochDay, open, high, low, close, volume);
+            }
+        }
+
+        return builder.build();
+    }
+
+    private static void skipRestOfObject(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    private static double readDouble(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return Double.NaN;
+        }
+        return parser.getValueAsDouble();
+    }
+
+    private static int readEpochDay(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.START_ARRAY) {
+            parser.nextToken();
+            int year = parser.getIntValue();
+            parser.nextToken();
+            int month = parser.getIntValue();
+            parser.nextToken();
+            int day = parser.getIntValue();
+            parser.nextToken(); // END_ARRAY
+            return epochDay(year, month, day);
+        }
+
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+
+        // Fast path for the "yyyy-MM-dd" shape written by both the Python converter and Jackson
+        if (length == 10 && chars[offset + 4] == '-' && chars[offset + 7] == '-') {
+            int year = digits(chars, offset, 4);
+            int month = digits(chars, offset + 5, 2);
+            int day = digits(chars, offset + 8, 2);
+            if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= 28) {
+                return epochDay(year, month, day);
+            }
+            if (year >= 0 && month >= 1) {
+                // Let LocalDate validate month-end days
+                return (int) LocalDate.of(year, month, day).toEpochDay();
+            }
+        }
+        return (int) LocalDate.parse(parser.getText()).toEpochDay();
+    }
+
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Same arithmetic as {@link LocalDate#toEpochDay()} for non-negative years
+     */
+    static int epochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y + (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367L * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+            if (!leap) {
+                total--;
+            }
+        }
+        return (int) (total - DAYS_0000_TO_1970);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PriceSeries;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only update segments per ticker ({@code segments/<ticker>/<seq>.seg})
+ *
+ * Each segment holds the bars of one update in the {@link BinarySnapshotCodec} layout.
+ * Segments are applied in sequence order on top of the base data, later bars replacing
+ * earlier bars of the same date, until compaction folds them into the base.
+ */
+@Slf4j
+class SegmentStore {
+
+    static final String EXTENSION = ".seg";
+
+    private final Path root;
+    private final SeriesCodec codec = new BinarySnapshotCodec();
+
+    SegmentStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Segment files of a ticker in the order they were written
+     */
+    List<Path> list(String ticker) throws IOException {
+        Path dir = root.resolve(ticker);
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                .filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                .sorted()
+                .toList();
+        }
+    }
+
+    boolean hasSegments(String ticker) throws IOException {
+        return !list(ticker).isEmpty();
+    }
+
+    /**
+     * Tickers that currently have segments waiting for compaction
+     */
+    List<String> tickers() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        List<String> tickers = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(root)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                String ticker = dir.getFileName().toString();
+                if (hasSegments(ticker)) {
+                    tickers.add(ticker);
+                }
+            }
+        }
+        return tickers;
+    }
+
+    /**
+     * Write the bars as the next segment of the ticker
+     */
+    synchronized Path append(String ticker, PriceSeries bars) throws IOException {
+        Path dir = Files.createDirectories(root.resolve(ticker));
+        List<Path> existing = list(ticker);
+
+        long next = 1;
+        if (!existing.isEmpty()) {
+            String last = existing.get(existing.size() - 1).getFileName().toString();
+            next = Long.parseLong(last.substring(0, last.length() - EXTENSION.length())) + 1;
+        }
+
+        Path segment = dir.resolve(String.format("%012d%s", next, EXTENSION));
+        AtomicFiles.write(segment, path -> codec.write(path, bars));
+        return segment;
+    }
+
+    /**
+     * Bars of the given segments merged in order, later bars winning on the same date
+     * A segment that disappeared has been compacted, so its bars are already in the base data
+     * as long as the base is read after the segments.
+     */
+    PriceSeries read(List<Path> segments) throws IOException {
+        PriceSeries merged = PriceSeries.empty();
+        for (Path segment : segments) {
+            try {
+                merged = merged.mergeWith(codec.read(segment));
+            } catch (NoSuchFileException e) {
+                log.debug("Segment {} was compacted while reading", segment.getFileName());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Remove segments that have been folded into the base data
+     */
+    void delete(List<Path> segments) throws IOException {
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+        }
+        log.debug("Deleted {} compacted segments", segments.size());
+    }
+}
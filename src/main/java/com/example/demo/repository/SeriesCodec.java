@@ -0,0 +1,29 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PriceSeries;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * On-disk encoding of a {@link PriceSeries} snapshot
+ */
+interface SeriesCodec {
+
+    /**
+     * Snapshot header, readable without decoding the bars
+     */
+    record Header(int version, int recordCount, int firstEpochDay, int lastEpochDay) {
+    }
+
+    /**
+     * File extension including the dot, e.g. {@code .bin}
+     */
+    String extension();
+
+    void write(Path path, PriceSeries series) throws IOException;
+
+    PriceSeries read(Path path) throws IOException;
+
+    Header readHeader(Path path) throws IOException;
+}
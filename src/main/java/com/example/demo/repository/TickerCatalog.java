@@ -0,0 +1,123 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.TickerInfo;
+import com.example.demo.model.TickerMetadata;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Universe of tracked tickers
+ *
+ * Entries come from {@code tickers.json} (name, Investing.com id, featured, pinned);
+ * any ticker with data in the data directory is part of the universe as well.
+ * Series are loaded lazily by {@link JsonDataRepository}; pinned entries stay resident.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class TickerCatalog {
+
+    private static final String CATALOG_FILE = "src/main/resources/tickers.json";
+
+    private final JsonDataRepository jsonDataRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Map<String, TickerInfo> entries = Map.of();
+
+    @PostConstruct
+    public void load() {
+        File file = new File(CATALOG_FILE);
+        if (!file.exists()) {
+            log.warn("No ticker catalog found at {} - only tickers with data files are available", CATALOG_FILE);
+            return;
+        }
+
+        try {
+            List<TickerInfo> infos = objectMapper.readValue(file, new TypeReference<List<TickerInfo>>() {});
+            Map<String, TickerInfo> loaded = new LinkedHashMap<>();
+            for (TickerInfo info : infos) {
+                loaded.put(info.getTicker().toUpperCase(), info);
+                if (info.isPinned()) {
+                    jsonDataRepository.pin(info.getTicker().toUpperCase());
+                }
+            }
+            entries = Collections.unmodifiableMap(loaded);
+            log.info("Loaded ticker catalog with {} entries", loaded.size());
+        } catch (IOException e) {
+            log.error("Error loading ticker catalog", e);
+            throw new RuntimeException("Failed to load ticker catalog", e);
+        }
+    }
+
+    public Optional<TickerInfo> getInfo(String ticker) {
+        return Optional.ofNullable(entries.get(ticker));
+    }
+
+    /**
+     * Catalog entries followed by any other ticker that has data, in catalog then alphabetical order
+     */
+    public List<String> getTickers() {
+        Set<String> tickers = new LinkedHashSet<>(entries.keySet());
+        tickers.addAll(jsonDataRepository.listTickers());
+        return new ArrayList<>(tickers);
+    }
+
+    /**
+     * Tickers shown by default, in catalog order
+     */
+    public List<String> getFeaturedTickers() {
+        return entries.values().stream()
+            .filter(TickerInfo::isFeatured)
+            .map(TickerInfo::getTicker)
+            .toList();
+    }
+
+    /**
+     * Ticker to Investing.com id for every entry that can be updated daily
+     */
+    public Map<String, String> getInvestingIds() {
+        Map<String, String> ids = new LinkedHashMap<>();
+        for (TickerInfo info : entries.values()) {
+            if (info.getInvestingId() != null && !info.getInvestingId().isBlank()) {
+                ids.put(info.getTicker(), info.getInvestingId());
+            }
+        }
+        return ids;
+    }
+
+    public Optional<String> getInvestingId(String ticker) {
+        return getInfo(ticker)
+            .map(TickerInfo::getInvestingId)
+            .filter(id -> !id.isBlank());
+    }
+
+    public Optional<TickerMetadata> getMetadata(String ticker) {
+        return jsonDataRepository.getMetadata(ticker);
+    }
+
+    /**
+     * Metadata of every ticker that has data, read from snapshot headers where possible
+     */
+    public List<TickerMetadata> getMetadataIndex() {
+        List<TickerMetadata> index = new ArrayList<>();
+        for (String ticker : getTickers()) {
+            jsonDataRepository.getMetadata(ticker).ifPresent(index::add);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockAnalysisResponse;
+import com.example.demo.repository.JsonDataRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 분석 결과 캐시 (메모리 + 디스크)
+ *
+ * ticker, 분석 파라미터, 시계열 내용 해시로 결과를 구분합니다.
+ * 새 데이터가 추가되면 해시가 바뀌므로 이전 결과는 자동으로 무효화됩니다.
+ * 디스크 계층({@code <ticker>_analysis.json})은 재시작 후에도 결과를 유지합니다.
+ * 디스크 파일에는 티커마다 최근 결과 {@code analysis.cache.disk-entries} 개까지만 남기며,
+ * 파일 쓰기는 요청 스레드가 아닌 하나의 쓰기 스레드에서 차례로 처리하므로 같은 티커의 결과가 서로를 덮어쓰지 않습니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalysisCache {
+
+    private final JsonDataRepository jsonDataRepository;
+
+    @Value("${analysis.cache.max-entries:256}")
+    private int maxEntries = 256;
+
+    @Value("${analysis.cache.disk-entries:16}")
+    private int diskEntries = 16;
+
+    /**
+     * Most recently used results, across tickers
+     */
+    private final Map<Key, Entry> memory = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Results known to be in each ticker's disk file, so misses for other parameters skip parsing it
+     */
+    private final Map<String, Stored> stored = new HashMap<>();
+
+    /**
+     * Results waiting for the writer, by ticker; a ticker is in here at most once per queued write
+     */
+    private final Map<String, CacheFile> pending = new HashMap<>();
+
+    /**
+     * Single thread, so writes of one ticker's file never interleave
+     */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "analysis-cache-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Analysis parameters that change the result
+     * The number of years requested is not part of it: the analysis always covers the whole history.
+     */
+    public record Key(String ticker, AnalysisParameters parameters) {
+
+        /**
+         * Stable text form, used as the key inside the disk file
+         */
+        String id() {
+            return "tolerance=" + parameters.tolerance().stripTrailingZeros().toPlainString()
+                + ";levels=" + join(parameters.levels())
+                + ";horizons=" + join(parameters.horizons());
+        }
+
+        private static String join(List<Integer> values) {
+            return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+        }
+    }
+
+    /**
+     * Bumped whenever the shape of {@link StockAnalysisResponse} changes, so older disk files are ignored
+     */
+    static final int FORMAT_VERSION = 4;
+
+    private record Entry(long contentHash, StockAnalysisResponse response) {
+    }
+
+    private record Stored(long contentHash, Set<String> ids) {
+
+        static final Stored NONE = new Stored(0, Set.of());
+
+        boolean contains(String id, long contentHash) {
+            return this.contentHash == contentHash && ids.contains(id);
+        }
+    }
+
+    /**
+     * 디스크 캐시 파일 형식 - 같은 시계열에 대한 파라미터별 결과
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheFile {
+        private int formatVersion;
+        private long contentHash;
+        private Map<String, StockAnalysisResponse> results = new LinkedHashMap<>();
+    }
+
+    /**
+     * Cached result for the series with the given content hash, memory first, then disk
+     */
+    public Optional<StockAnalysisResponse> get(Key key, long contentHash) {
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry != null && entry.contentHash() == contentHash) {
+                return Optional.of(entry.response());
+            }
+        }
+
+        String id = key.id();
+        synchronized (pending) {
+            CacheFile file = pending.get(key.ticker());
+            if (file != null && file.getContentHash() == contentHash && file.getResults().containsKey(id)) {
+                return Optional.of(file.getResults().get(id));
+            }
+        }
+        if (!stored(key.ticker()).contains(id, contentHash)) {
+            return Optional.empty();
+        }
+
+        Optional<StockAnalysisResponse> loaded = jsonDataRepository.loadAnalysisCache(key.ticker(), CacheFile.class)
+            .filter(file -> isCurrent(file, contentHash))
+            .map(file -> file.getResults().get(id));
+        loaded.ifPresent(response -> {
+            log.debug("Loaded cached analysis for {} from disk", key.ticker());
+            remember(key, contentHash, response);
+        });
+        return loaded;
+    }
+
+    /**
+     * Remember a result; the disk file is updated later by the writer thread
+     */
+    public void put(Key key, long contentHash, StockAnalysisResponse response) {
+        remember(key, contentHash, response);
+
+        boolean queued;
+        synchronized (pending) {
+            CacheFile file = pending.get(key.ticker());
+            queued = file != null;
+            if (file == null || file.getContentHash() != contentHash) {
+                file = new CacheFile(FORMAT_VERSION, contentHash, new LinkedHashMap<>());
+                pending.put(key.ticker(), file);
+            }
+            file.getResults().put(key.id(), response);
+        }
+        if (!queued) {
+            writer.execute(() -> write(key.ticker()));
+        }
+    }
+
+    /**
+     * Wait until every result put so far is on disk
+     */
+    void flush() throws InterruptedException, ExecutionException {
+        writer.submit(() -> { }).get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void write(String ticker) {
+        CacheFile update;
+        synchronized (pending) {
+            update = pending.remove(ticker);
+        }
+        if (update == null) {
+            return;
+        }
+
+        // Keep results for other parameters only while they belong to the same series, newest last
+        CacheFile file = jsonDataRepository.loadAnalysisCache(ticker, CacheFile.class)
+            .filter(existing -> isCurrent(existing, update.getContentHash()))
+            .orElseGet(() -> new CacheFile(FORMAT_VERSION, update.getContentHash(), new LinkedHashMap<>()));
+        update.getResults().forEach((id, response) -> {
+            file.getResults().remove(id);
+            file.getResults().put(id, response);
+        });
+        Iterator<String> oldest = file.getResults().keySet().iterator();
+        while (file.getResults().size() > diskEntries) {
+            oldest.next();
+            oldest.remove();
+        }
+
+        jsonDataRepository.saveAnalysisCache(ticker, file);
+        synchronized (stored) {
+            stored.put(ticker, new Stored(file.getContentHash(), Set.copyOf(file.getResults().keySet())));
+        }
+    }
+
+    /**
+     * What the ticker's disk file holds, read once and then kept up to date by {@link #write(String)}
+     */
+    private Stored stored(String ticker) {
+        synchronized (stored) {
+            Stored known = stored.get(ticker);
+            if (known != null) {
+                return known;
+            }
+        }
+        Stored read = jsonDataRepository.loadAnalysisCache(ticker, CacheFile.class)
+            .filter(file -> isCurrent(file, file.getContentHash()))
+            .map(file -> new Stored(file.getContentHash(), Set.copyOf(file.getResults().keySet())))
+            .orElse(Stored.NONE);
+        synchronized (stored) {
+            return stored.computeIfAbsent(ticker, key -> read);
+        }
+    }
+
+    private static boolean isCurrent(CacheFile file, long contentHash) {
+        return file.getFormatVersion() == FORMAT_VERSION && file.getContentHash() == contentHash && file.getResults() != null;
+    }
+
+    private void remember(Key key, long contentHash, StockAnalysisResponse response) {
+        synchronized (memory) {
+            memory.put(key, new Entry(contentHash, response));
+        }
+    }
+}
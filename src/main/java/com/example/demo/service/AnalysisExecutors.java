@@ -0,0 +1,177 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 분석용 스레드 풀
+ *
+ * 티커 단위 작업(여러 티커 동시 분석)과 한 분석 안의 단계(현재 하락률, 유사 사례, 수준별 분석, 1년 차트)를
+ * 서로 다른 고정 크기 풀에서 실행합니다. 티커 작업은 단계 작업을 기다리기만 하고 단계 작업은 아무것도
+ * 기다리지 않으므로, 풀이 가득 차도 서로를 막는 교착이 생기지 않습니다.
+ * 티커 풀과 I/O 풀은 큐가 가득 차면 작업을 거부하고, {@link AnalysisScope}가 마감 시각까지 다시 제출합니다.
+ * 단계 풀은 큐가 가득 차면 호출한 스레드(범위 안의 티커 작업)가 직접 실행합니다.
+ *
+ * {@code spring.threads.virtual.enabled=true}이면 요청 처리(Tomcat)와 함께 여기의 작업도 가상 스레드에서
+ * 실행합니다. 이때는 작업마다 가상 스레드를 만들고, CPU를 쓰는 단계 작업만 세마포어로 동시 실행 수를 제한합니다.
+ * 저장소 읽기와 외부 API 호출 같은 I/O 작업은 {@link #io()}에서 실행합니다. 플랫폼 스레드 모드에서는
+ * 이 작업도 고정 크기 풀에서 실행하므로 범위의 마감 시각이 적용됩니다.
+ */
+@Slf4j
+@Component
+public class AnalysisExecutors {
+
+    /**
+     * How often a stage waiting for a permit checks whether its analysis is still waiting for it
+     */
+    private static final long PERMIT_RETRY_MILLIS = 5;
+
+    private final ExecutorService tickers;
+    private final ExecutorService stages;
+    private final ExecutorService io;
+
+    /**
+     * Stages running at once, only limited with virtual threads; null with platform thread pools
+     */
+    private final Semaphore stagePermits;
+
+    /**
+     * Deadline for the fan-out of one request, see {@link AnalysisScope}
+     */
+    private final Duration timeout;
+
+    public AnalysisExecutors(int threads, int queueCapacity) {
+        this(threads, queueCapacity, false, 0, Duration.ofSeconds(30));
+    }
+
+    @Autowired
+    public AnalysisExecutors(
+            @Value("${analysis.executor.threads:0}") int threads,
+            @Value("${analysis.executor.queue-capacity:256}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${analysis.executor.max-concurrent:0}") int maxConcurrent,
+            @Value("${analysis.executor.timeout:30s}") Duration timeout) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.timeout = timeout;
+        if (virtualThreads) {
+            int permits = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+            this.stagePermits = new Semaphore(permits);
+            this.tickers = newVirtual("analysis-ticker-");
+            this.stages = newVirtual("analysis-stage-");
+            this.io = newVirtual("analysis-io-");
+            log.info("Analysis executors: virtual threads, at most {} stages at once", permits);
+        } else {
+            this.stagePermits = null;
+            this.tickers = newPool("analysis-ticker-", size, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+            this.stages = newPool("analysis-stage-", size, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+            this.io = newPool("analysis-io-", size, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+            log.info("Analysis executors: {} threads each, queue capacity {}", size, queueCapacity);
+        }
+    }
+
+    /**
+     * For whole-ticker analyses; tasks may wait on {@link #stages()}
+     * Rejects tasks when the queue is full; submit through an {@link AnalysisScope}, which retries until its deadline.
+     */
+    public Executor tickers() {
+        return tickers;
+    }
+
+    /**
+     * For the stages of one analysis; tasks must not block on other tasks
+     * Call it on the thread that runs the analysis and waits for the stages.
+     * With virtual threads a task waits for a permit, so CPU-heavy stages never outnumber the permits;
+     * a task still waiting when that thread is interrupted or has finished (e.g. its ticker was cancelled
+     * at the scope's deadline) is dropped without taking a permit.
+     * With platform threads a full queue runs the stage on the submitting ticker task, inside that task's scope.
+     */
+    public Executor stages() {
+        if (stagePermits == null) {
+            return stages;
+        }
+        Thread owner = Thread.currentThread();
+        return task -> stages.execute(() -> {
+            try {
+                if (!acquireStagePermit(owner)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                stagePermits.release();
+            }
+        });
+    }
+
+    /**
+     * For blocking I/O fanned out per ticker (repository loads, ingest HTTP calls)
+     * Rejects tasks when the platform pool's queue is full, like {@link #tickers()}.
+     */
+    public Executor io() {
+        return io;
+    }
+
+    /**
+     * Deadline for the tasks fanned out by one request
+     */
+    public Duration timeout() {
+        return timeout;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        tickers.shutdownNow();
+        stages.shutdownNow();
+        io.shutdownNow();
+    }
+
+    /**
+     * Wait for a stage permit while {@code owner} still waits for the stage
+     * @return false if the owner gave up first
+     */
+    private boolean acquireStagePermit(Thread owner) throws InterruptedException {
+        do {
+            if (!owner.isAlive() || owner.isInterrupted()) {
+                return false;
+            }
+        } while (!stagePermits.tryAcquire(PERMIT_RETRY_MILLIS, TimeUnit.MILLISECONDS));
+        return true;
+    }
+
+    private static ExecutorService newVirtual(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 1).factory());
+    }
+
+    private static ExecutorService newPool(String namePrefix, int size, int queueCapacity,
+                                           RejectedExecutionHandler overflow) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), threadFactory, overflow);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
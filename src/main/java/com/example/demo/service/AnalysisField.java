@@ -0,0 +1,56 @@
+package com.example.demo.service;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 분석 응답 필드
+ *
+ * 일괄 분석에서 요청한 필드만 계산합니다. 현재 하락률은 전고점 상태만 읽으므로 가장 가볍고,
+ * 유사 사례와 수준별 분석은 이벤트 인덱스와 수익률 표를, 차트는 최근 1년 봉을 씁니다.
+ */
+public enum AnalysisField {
+
+    CURRENT_DRAWDOWN("currentDrawdown"),
+    SIMILAR("similar"),
+    LEVELS("levels"),
+    CHARTS("charts");
+
+    private final String id;
+
+    AnalysisField(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Name of the field in requests
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Fields named in a request, every field when none are named
+     * @throws IllegalArgumentException for an unknown field name
+     */
+    public static Set<AnalysisField> parse(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return EnumSet.allOf(AnalysisField.class);
+        }
+        Set<AnalysisField> fields = EnumSet.noneOf(AnalysisField.class);
+        for (String id : ids) {
+            fields.add(of(id));
+        }
+        return fields;
+    }
+
+    private static AnalysisField of(String id) {
+        for (AnalysisField field : values()) {
+            if (field.id.equals(id)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown analysis field: " + id);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 분석 파라미터
+ *
+ * 하락률 수준(%), 수준별 사례를 고를 때의 허용 오차(±%), 저점 이후 수익률 기간(개월)입니다.
+ * 지정하지 않은 값은 {@link #DEFAULT}를 따릅니다.
+ * @param levels    drawdown levels in percent, e.g. -10 for 10% below the peak
+ * @param tolerance cases within ±tolerance percentage points of a level count for it
+ * @param horizons  months after the bottom at which returns are measured
+ */
+public record AnalysisParameters(List<Integer> levels, BigDecimal tolerance, List<Integer> horizons) {
+
+    static final int MAX_LEVELS = 100;
+    static final int MAX_HORIZONS = 120;
+    static final int MAX_HORIZON_MONTHS = 360;
+    static final BigDecimal MAX_TOLERANCE = BigDecimal.valueOf(50);
+
+    // After the limits, which the constructor reads
+    public static final AnalysisParameters DEFAULT = new AnalysisParameters(
+        List.of(-10, -15, -20, -25, -30, -35, -40), BigDecimal.valueOf(2.5), List.of(1, 3, 6, 12, 24));
+
+    public AnalysisParameters {
+        if (levels == null || levels.isEmpty() || levels.size() > MAX_LEVELS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_LEVELS + " drawdown levels are required");
+        }
+        for (Integer level : levels) {
+            if (level == null || level < -99 || level > 0) {
+                throw new IllegalArgumentException("Drawdown levels must be between -99 and 0: " + level);
+            }
+        }
+        if (tolerance == null || tolerance.signum() <= 0 || tolerance.compareTo(MAX_TOLERANCE) > 0) {
+            throw new IllegalArgumentException("Tolerance must be above 0 and at most " + MAX_TOLERANCE + ": " + tolerance);
+        }
+        if (horizons == null || horizons.isEmpty() || horizons.size() > MAX_HORIZONS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_HORIZONS + " horizons are required");
+        }
+        for (Integer months : horizons) {
+            if (months == null || months < 1 || months > MAX_HORIZON_MONTHS) {
+                throw new IllegalArgumentException("Horizons must be between 1 and " + MAX_HORIZON_MONTHS + " months: " + months);
+            }
+        }
+        levels = List.copyOf(levels);
+        tolerance = tolerance.stripTrailingZeros();
+        horizons = List.copyOf(horizons);
+    }
+
+    /**
+     * Parameters with {@link #DEFAULT} in place of every missing value
+     */
+    public static AnalysisParameters of(List<Integer> levels, BigDecimal tolerance, List<Integer> horizons) {
+        return new AnalysisParameters(
+            levels != null ? levels : DEFAULT.levels(),
+            tolerance != null ? tolerance : DEFAULT.tolerance(),
+            horizons != null ? horizons : DEFAULT.horizons());
+    }
+
+    int[] horizonMonths() {
+        return horizons.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
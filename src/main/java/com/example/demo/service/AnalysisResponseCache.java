@@ -0,0 +1,123 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 직렬화된 분석 응답 캐시
+ *
+ * 응답 버전 태그({@link AnalysisService.ResponseVersion#tag()} - 티커, 파라미터, 데이터 버전을 담음)별로
+ * 최종 JSON 바이트와 gzip 압축본을 보관합니다. 같은 요청은 객체 그래프를 다시 직렬화하지 않고
+ * 바이트 배열을 그대로 씁니다. 전체 크기가 예산을 넘으면 가장 오래 쓰이지 않은 응답부터 버립니다.
+ * 데이터 파일이 외부에서 바뀌면 저장소가 메타데이터를 버려 버전(태그)이 바뀌므로, 이전 항목은 다시 쓰이지 않고
+ * 예산에 밀려 사라집니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalysisResponseCache {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${analysis.response-cache.max-bytes:67108864}")
+    private long maxBytes = 64L << 20;
+
+    /**
+     * Serialized responses by tag, most recently used last
+     */
+    private final Map<String, Payload> payloads = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * A response as written to the client
+     * @param json     UTF-8 JSON
+     * @param gzip     the same JSON gzip-compressed, or null when the payload is not cached
+     * @param reusable whether the payload stays valid for its tag; false for failed analyses
+     */
+    public record Payload(byte[] json, byte[] gzip, boolean reusable) {
+
+        long bytes() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    /**
+     * Serialized response for {@code tag}, computed, serialized and compressed once on a miss
+     * @param compute   produces the response when no payload is cached
+     * @param reusable  whether a computed response may be cached, e.g. not when the analysis failed
+     */
+    public <T> Payload get(String tag, Supplier<T> compute, Predicate<T> reusable) {
+        synchronized (payloads) {
+            Payload payload = payloads.get(tag);
+            if (payload != null) {
+                return payload;
+            }
+        }
+
+        T response = compute.get();
+        if (!reusable.test(response)) {
+            return serialize(response);
+        }
+
+        byte[] json = toJson(response);
+        Payload payload = new Payload(json, gzip(json), true);
+        remember(tag, payload);
+        return payload;
+    }
+
+    /**
+     * Response serialized for a single use, without a compressed variant
+     */
+    public Payload serialize(Object response) {
+        return new Payload(toJson(response), null, false);
+    }
+
+    private void remember(String tag, Payload payload) {
+        if (payload.bytes() > maxBytes) {
+            return;
+        }
+        synchronized (payloads) {
+            Payload previous = payloads.put(tag, payload);
+            totalBytes += payload.bytes() - (previous != null ? previous.bytes() : 0);
+
+            Iterator<Payload> eldest = payloads.values().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().bytes();
+                eldest.remove();
+            }
+        }
+        log.debug("Cached {} bytes of serialized analysis ({} gzipped)", payload.json().length, payload.gzip().length);
+    }
+
+    private byte[] toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize analysis response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed, 8192)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 마감 시각이 있는 작업 범위 (구조적 동시성)
+ *
+ * Java 21의 StructuredTaskScope는 미리보기 API이므로 같은 규칙을 직접 지킵니다.
+ * 범위 안에서 시작한 작업은 범위를 닫기 전에 모두 끝나거나 취소되며, {@link #join()}은 마감 시각까지만 기다립니다.
+ * 마감이 지나면 남은 작업을 인터럽트로 취소하고, 호출한 쪽은 끝난 작업의 결과만 씁니다.
+ * 실행기가 가득 차서 거부한 작업은 호출한 스레드에서 실행하지 않고, {@link #join()}이 마감 시각까지 다시 제출합니다.
+ * 마감까지 시작하지 못한 작업은 실행되지 않습니다.
+ */
+final class AnalysisScope implements AutoCloseable {
+
+    private static final long RETRY_MILLIS = 5;
+
+    private final Executor executor;
+    private final long deadlineNanos;
+    private final List<FutureTask<?>> tasks = new ArrayList<>();
+
+    /**
+     * Tasks the executor rejected, in fork order, submitted again by {@link #join()}
+     */
+    private final List<FutureTask<?>> deferred = new ArrayList<>();
+
+    AnalysisScope(Executor executor, Duration timeout) {
+        this.executor = executor;
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Start a task in this scope; its outcome is read from the future after {@link #join()}
+     */
+    <T> Future<T> fork(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        tasks.add(future);
+        if (!deferred.isEmpty() || !trySubmit(future)) {
+            deferred.add(future);
+        }
+        return future;
+    }
+
+    /**
+     * Wait for every task until the deadline; tasks still running then are cancelled
+     * @return whether every task finished before the deadline
+     */
+    boolean join() throws InterruptedException {
+        for (FutureTask<?> task : deferred) {
+            while (!trySubmit(task)) {
+                if (System.nanoTime() - deadlineNanos >= 0) {
+                    cancelAll();
+                    return false;
+                }
+                // Wait for a worker to take a queued task
+                Thread.sleep(RETRY_MILLIS);
+            }
+        }
+        deferred.clear();
+
+        for (FutureTask<?> task : tasks) {
+            try {
+                task.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | CancellationException e) {
+                // Failures are read per task by the caller
+            } catch (TimeoutException e) {
+                cancelAll();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cancel whatever is still running, e.g. when the caller is interrupted before {@link #join()} returns
+     */
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private boolean trySubmit(FutureTask<?> task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private void cancelAll() {
+        for (FutureTask<?> task : tasks) {
+            task.cancel(true);
+        }
+    }
+}
@@ -6,12 +6,26 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -19,439 +33,873 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AnalysisService {
 
+    /**
+     * Cases listed per drawdown level; statistics still cover every case
+     */
+    private static final int LEVEL_CASE_LIMIT = 10;
+
+    /**
+     * Fixed-point closes and indexes are kept for this many recently analyzed series
+     */
+    private static final int INDEX_CACHE_SIZE = 32;
+
+    /**
+     * Downsampled charts are kept for this many ticker, content, chart and point count combinations
+     */
+    private static final int CHART_CACHE_SIZE = 512;
+
     private final StockDataService stockDataService;
+    private final AnalysisCache analysisCache;
+    private final AnalysisExecutors analysisExecutors;
+    private final IncrementalAnalysisEngine incrementalAnalysis;
 
     /**
-     * Calculate current drawdown from all-time high
+     * Per-series structures keyed by content hash, most recently used last
      */
-    public DrawdownAnalysis calculateCurrentDrawdown(String ticker, List<StockData> stockDataList) {
-        if (stockDataList == null || stockDataList.isEmpty()) {
-            throw new IllegalArgumentException("Stock data list is empty");
-        }
+    private final Map<Long, FixedPointPrices> fixedPointPrices = indexCache();
+    private final Map<Long, PriceRangeIndex> rangeIndexes = indexCache();
+    private final Map<Long, int[]> underwaterBasisPoints = indexCache();
 
-        // Find all-time high
-        StockData peakData = stockDataList.stream()
-            .max((a, b) -> a.getClose().compareTo(b.getClose()))
-            .orElseThrow(() -> new RuntimeException("Failed to find peak"));
+    /**
+     * Underwater curves as served, per ticker, series content and point count
+     */
+    private final Map<UnderwaterKey, UnderwaterCurve> underwaterCurves = indexCache();
 
-        // Get latest price (most recent date)
-        StockData latestData = stockDataList.stream()
-            .max((a, b) -> a.getDate().compareTo(b.getDate()))
-            .orElseThrow(() -> new RuntimeException("Failed to find latest data"));
+    private record UnderwaterKey(String ticker, long contentHash, int points) {
+    }
 
-        BigDecimal currentPrice = latestData.getClose();
-        BigDecimal peakPrice = peakData.getClose();
+    /**
+     * Downsampled charts, per ticker, series content, chart ("1y" or an event id) and point count
+     */
+    private final Map<ChartKey, ChartData> downsampledCharts = indexCache(CHART_CACHE_SIZE);
+
+    private record ChartKey(String ticker, long contentHash, String chart, int points) {
+    }
+
+    /**
+     * Calculate current drawdown from all-time high
+     */
+    private DrawdownAnalysis calculateCurrentDrawdown(
+            String ticker,
+            PriceSeries series,
+            IncrementalAnalysisEngine.Snapshot state) {
+
+        // All-time high is kept by the running state (earliest bar on ties)
+        int peakIndex = state.peakIndex();
+
+        // Get latest price (series is sorted by date)
+        int latestIndex = series.size() - 1;
 
         // Calculate drawdown percentage: ((current - peak) / peak) * 100
-        BigDecimal drawdown = currentPrice.subtract(peakPrice)
-            .divide(peakPrice, 4, RoundingMode.HALF_UP)
-            .multiply(BigDecimal.valueOf(100));
+        int drawdown = FixedPointPrices.changeBasisPoints(series.close(peakIndex), series.close(latestIndex));
 
-        long daysSincePeak = ChronoUnit.DAYS.between(peakData.getDate(), latestData.getDate());
+        long daysSincePeak = series.epochDay(latestIndex) - series.epochDay(peakIndex);
 
         return DrawdownAnalysis.builder()
             .ticker(ticker)
-            .currentPrice(currentPrice)
-            .peakPrice(peakPrice)
-            .peakDate(peakData.getDate())
-            .drawdownPercent(drawdown.setScale(2, RoundingMode.HALF_UP))
+            .currentPrice(series.closeDecimal(latestIndex))
+            .peakPrice(series.closeDecimal(peakIndex))
+            .peakDate(series.date(peakIndex))
+            .drawdownPercent(FixedPointPrices.toPercent(drawdown))
             .daysSincePeak((int) daysSincePeak)
             .build();
     }
 
     /**
-     * Find historical drawdowns similar to current level
+     * Closes in fixed point for allocation-free percentage math, built once per series content
      */
-    public List<HistoricalDrawdown> findHistoricalDrawdowns(
-            List<StockData> stockDataList,
-            BigDecimal currentDrawdownPercent,
-            BigDecimal tolerance) {
+    public FixedPointPrices getFixedPointPrices(PriceSeries series) {
+        return cachedIndex(fixedPointPrices, series, FixedPointPrices::of);
+    }
+
+    /**
+     * Range min/max index of the series, built once per series content
+     */
+    public PriceRangeIndex getRangeIndex(PriceSeries series) {
+        return cachedIndex(rangeIndexes, series, PriceRangeIndex::build);
+    }
 
-        List<HistoricalDrawdown> historicalDrawdowns = new ArrayList<>();
+    private static <K, T> Map<K, T> indexCache() {
+        return indexCache(INDEX_CACHE_SIZE);
+    }
 
-        if (stockDataList.size() < 2) {
-            return historicalDrawdowns;
-        }
+    private static <K, T> Map<K, T> indexCache(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, T> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
 
-        // Find all local peaks and their subsequent drawdowns
-        for (int i = 30; i < stockDataList.size() - 30; i++) {
-            StockData current = stockDataList.get(i);
+    /**
+     * Index of the series from the given cache, built outside the lock on a miss
+     */
+    private static <T> T cachedIndex(Map<Long, T> cache, PriceSeries series, Function<PriceSeries, T> builder) {
+        return cached(cache, series.contentHash(), () -> builder.apply(series));
+    }
 
-            // Check if this is a local peak (highest in 30-day window)
-            boolean isPeak = true;
-            for (int j = Math.max(0, i - 30); j <= Math.min(stockDataList.size() - 1, i + 30); j++) {
-                if (j != i && stockDataList.get(j).getClose().compareTo(current.getClose()) > 0) {
-                    isPeak = false;
-                    break;
-                }
+    /**
+     * Value of {@code key} from the given cache, built outside the lock on a miss
+     */
+    private static <K, T> T cached(Map<K, T> cache, K key, Supplier<T> builder) {
+        synchronized (cache) {
+            T value = cache.get(key);
+            if (value != null) {
+                return value;
             }
+        }
 
-            if (!isPeak) continue;
+        T value = builder.get();
+        synchronized (cache) {
+            cache.put(key, value);
+        }
+        return value;
+    }
 
-            // Find the bottom after this peak (within next 6 months)
-            BigDecimal peakPrice = current.getClose();
-            StockData bottomData = null;
-            int bottomIndex = i;
+    /**
+     * Largest peak-to-trough decline between two dates (inclusive), whole history when a date is missing
+     */
+    public WindowDrawdown analyzeWindow(String ticker, LocalDate from, LocalDate to) {
+        PriceSeries series = stockDataService.getPriceSeries(ticker, 0);
+        int fromIndex = from != null ? series.lowerBound(from.toEpochDay()) : 0;
+        int toIndex = (to != null ? series.upperBound(to.toEpochDay()) : series.size()) - 1;
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("No data for " + ticker + " between " + from + " and " + to);
+        }
 
-            for (int j = i + 1; j < Math.min(stockDataList.size(), i + 180); j++) {
-                if (bottomData == null || stockDataList.get(j).getClose().compareTo(bottomData.getClose()) < 0) {
-                    bottomData = stockDataList.get(j);
-                    bottomIndex = j;
-                }
-            }
+        PriceRangeIndex.Range range = getRangeIndex(series).query(fromIndex, toIndex);
+        int drawdown = getFixedPointPrices(series).changeBasisPoints(range.peakIndex(), range.troughIndex());
 
-            if (bottomData == null) continue;
+        return WindowDrawdown.builder()
+            .ticker(ticker)
+            .startDate(series.date(fromIndex))
+            .endDate(series.date(toIndex))
+            .peakDate(series.date(range.peakIndex()))
+            .peakPrice(series.closeDecimal(range.peakIndex()))
+            .troughDate(series.date(range.troughIndex()))
+            .troughPrice(series.closeDecimal(range.troughIndex()))
+            .drawdownPercent(FixedPointPrices.toPercent(drawdown))
+            .highPrice(series.closeDecimal(range.maxIndex()))
+            .lowPrice(series.closeDecimal(range.minIndex()))
+            .build();
+    }
 
-            // Check if there's any price higher than peak between peak and bottom
-            // If so, this is not a valid drawdown pattern
-            boolean hasHigherPrice = false;
-            for (int j = i + 1; j < bottomIndex; j++) {
-                if (stockDataList.get(j).getClose().compareTo(peakPrice) > 0) {
-                    hasHigherPrice = true;
-                    break;
-                }
-            }
+    /**
+     * Drawdown from the running all-time high on every bar of the whole history
+     * The curve is computed in one pass once per series content; downsampled curves are cached per point count.
+     * @param points number of points to keep with LTTB, or null for every bar
+     */
+    public UnderwaterCurve getUnderwaterCurve(String ticker, Integer points) {
+        checkChartPoints(points);
+
+        PriceSeries series = stockDataService.getPriceSeries(ticker, 0);
+        UnderwaterKey key = new UnderwaterKey(ticker, series.contentHash(), points != null ? points : 0);
+        return cached(underwaterCurves, key, () -> {
+            int[] drawdowns = cachedIndex(underwaterBasisPoints, series,
+                s -> underwaterBasisPoints(s, getFixedPointPrices(s)));
+            int[] kept = points != null
+                ? Downsampling.largestTriangleThreeBuckets(series::epochDay, i -> drawdowns[i], series.size(), points)
+                : null;
+            return toUnderwaterCurve(ticker, series, drawdowns, kept);
+        });
+    }
 
-            if (hasHigherPrice) continue;
-
-            // Calculate drawdown from this peak
-            BigDecimal drawdown = bottomData.getClose().subtract(peakPrice)
-                .divide(peakPrice, 4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100));
-
-            // Check if this drawdown is similar to current (within tolerance)
-            BigDecimal difference = drawdown.subtract(currentDrawdownPercent).abs();
-            if (difference.compareTo(tolerance) <= 0) {
-                // Calculate recovery periods (1, 3, 6, 12, 24 months)
-                List<RecoveryPeriod> recoveryPeriods = calculateRecoveryPeriods(
-                    stockDataList, bottomIndex, bottomData.getClose()
-                );
-
-                // Generate chart data for this historical drawdown (3 months before peak to 12 months after bottom)
-                ChartData chartData = generateHistoricalDrawdownChartData(
-                    stockDataList, i, bottomIndex
-                );
-
-                historicalDrawdowns.add(HistoricalDrawdown.builder()
-                    .startDate(current.getDate())
-                    .bottomDate(bottomData.getDate())
-                    .drawdownPercent(drawdown.setScale(2, RoundingMode.HALF_UP))
-                    .recoveryPeriods(recoveryPeriods)
-                    .chartData(chartData)
-                    .build());
-            }
+    /**
+     * @throws IllegalArgumentException if a point count is given but too small to downsample to
+     */
+    private static void checkChartPoints(Integer points) {
+        if (points != null && points < Downsampling.MIN_POINTS) {
+            throw new IllegalArgumentException("At least " + Downsampling.MIN_POINTS + " points are required: " + points);
         }
+    }
 
-        log.info("Found {} historical drawdowns similar to current {}%",
-            historicalDrawdowns.size(), currentDrawdownPercent);
-
-        return historicalDrawdowns;
+    /**
+     * Change from the highest close so far to each close, in basis points
+     */
+    private static int[] underwaterBasisPoints(PriceSeries series, FixedPointPrices prices) {
+        int[] drawdowns = new int[series.size()];
+        int peakIndex = 0;
+        for (int i = 0; i < drawdowns.length; i++) {
+            if (series.close(i) > series.close(peakIndex)) {
+                peakIndex = i;
+            }
+            drawdowns[i] = prices.changeBasisPoints(peakIndex, i);
+        }
+        return drawdowns;
     }
 
     /**
-     * Calculate returns after N months from a given starting point
+     * @param kept indexes to include in ascending order, or null for every bar
      */
-    private List<RecoveryPeriod> calculateRecoveryPeriods(
-            List<StockData> stockDataList,
-            int startIndex,
-            BigDecimal startPrice) {
+    private static UnderwaterCurve toUnderwaterCurve(String ticker, PriceSeries series, int[] drawdowns, int[] kept) {
+        int deepest = 0;
+        for (int i = 1; i < drawdowns.length; i++) {
+            if (drawdowns[i] < drawdowns[deepest]) {
+                deepest = i;
+            }
+        }
 
-        List<RecoveryPeriod> periods = new ArrayList<>();
-        int[] monthsToCheck = {1, 3, 6, 12, 24};
+        int count = kept != null ? kept.length : drawdowns.length;
+        List<String> labels = new ArrayList<>(count);
+        List<BigDecimal> percents = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            int i = kept != null ? kept[k] : k;
+            labels.add(series.date(i).toString());
+            percents.add(FixedPointPrices.toPercent(drawdowns[i]));
+        }
 
-        for (int months : monthsToCheck) {
-            // Find data point approximately N months later
-            LocalDate targetDate = stockDataList.get(startIndex).getDate().plusMonths(months);
+        return UnderwaterCurve.builder()
+            .ticker(ticker)
+            .totalPoints(drawdowns.length)
+            .labels(labels)
+            .drawdowns(percents)
+            .maxDrawdownDate(drawdowns.length > 0 ? series.date(deepest).toString() : null)
+            .maxDrawdownPercent(drawdowns.length > 0 ? FixedPointPrices.toPercent(drawdowns[deepest]) : null)
+            .build();
+    }
 
-            // Find closest date to target
-            StockData closestData = null;
-            long minDaysDiff = Long.MAX_VALUE;
+    private List<HistoricalDrawdown> findSimilarDrawdowns(
+            PriceSeries series,
+            IncrementalAnalysisEngine.Snapshot state,
+            ForwardReturns returns,
+            BigDecimal currentDrawdownPercent,
+            BigDecimal tolerance) {
 
-            for (int i = startIndex; i < stockDataList.size(); i++) {
-                long daysDiff = Math.abs(ChronoUnit.DAYS.between(
-                    stockDataList.get(i).getDate(), targetDate
-                ));
+        // Events within tolerance of the current drawdown, in peak order
+        List<DrawdownEventIndex.Event> events = state.events().findWithin(currentDrawdownPercent, tolerance);
 
-                if (daysDiff < minDaysDiff) {
-                    minDaysDiff = daysDiff;
-                    closestData = stockDataList.get(i);
-                }
+        log.info("Found {} historical drawdowns similar to current {}%", events.size(), currentDrawdownPercent);
 
-                // If we've passed the target date by more than 15 days, stop searching
-                if (stockDataList.get(i).getDate().isAfter(targetDate) && daysDiff > 15) {
-                    break;
-                }
-            }
+        return toHistoricalDrawdowns(series, returns, events, events.size());
+    }
 
-            if (closestData != null) {
-                BigDecimal returnPercent = closestData.getClose().subtract(startPrice)
-                    .divide(startPrice, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100))
-                    .setScale(2, RoundingMode.HALF_UP);
+    /**
+     * Cases for the first {@code limit} events, with their returns at every horizon of {@code returns}
+     */
+    private List<HistoricalDrawdown> toHistoricalDrawdowns(
+            PriceSeries series,
+            ForwardReturns returns,
+            List<DrawdownEventIndex.Event> events,
+            int limit) {
+
+        List<HistoricalDrawdown> historicalDrawdowns = new ArrayList<>(Math.min(limit, events.size()));
+
+        for (DrawdownEventIndex.Event event : events.subList(0, Math.min(limit, events.size()))) {
+            int peakIndex = event.peakIndex();
+            int bottomIndex = event.bottomIndex();
+
+            // Charts are served on demand by getEventChart, keyed by the peak date
+            historicalDrawdowns.add(HistoricalDrawdown.builder()
+                .eventId(series.date(peakIndex).toString())
+                .startDate(series.date(peakIndex))
+                .bottomDate(series.date(bottomIndex))
+                .peakIndex(peakIndex)
+                .bottomIndex(bottomIndex)
+                .drawdownPercent(event.drawdownPercent())
+                .recoveryPeriods(recoveryPeriods(returns, peakIndex))
+                .build());
+        }
 
-                periods.add(RecoveryPeriod.builder()
-                    .months(months)
-                    .returnPercent(returnPercent)
-                    .build());
-            }
+        return historicalDrawdowns;
+    }
+
+    /**
+     * Returns N months after the bottom of the event starting at {@code peakIndex}
+     */
+    private List<RecoveryPeriod> recoveryPeriods(ForwardReturns returns, int peakIndex) {
+        List<RecoveryPeriod> periods = new ArrayList<>(returns.horizonCount());
+
+        for (int horizon = 0; horizon < returns.horizonCount(); horizon++) {
+            periods.add(RecoveryPeriod.builder()
+                .months(returns.months(horizon))
+                .returnPercent(FixedPointPrices.toPercent(returns.basisPoints(peakIndex, horizon)))
+                .build());
         }
 
         return periods;
     }
 
     /**
-     * Analyze historical performance at fixed drawdown levels
-     * 고정 하락률 수준별 과거 패턴 분석 (10%, 15%, 20%, 25%, 30%, 35%, 40%)
+     * Returns of every event at the given horizons
+     * The default horizons were already resolved by the running state as their dates passed;
+     * other horizons are computed as one batch over the event bottoms.
      */
-    public List<DrawdownLevelAnalysis> analyzeDrawdownLevels(List<StockData> stockDataList) {
-        // Define drawdown levels to analyze: -10%, -15%, -20%, -25%, -30%, -35%, -40%
-        List<Integer> drawdownLevels = Arrays.asList(-10, -15, -20, -25, -30, -35, -40);
+    private ForwardReturns getForwardReturns(
+            PriceSeries series,
+            IncrementalAnalysisEngine.Snapshot state,
+            AnalysisParameters parameters) {
+        int[] horizons = parameters.horizonMonths();
+        if (state.recoveries().hasHorizons(horizons)) {
+            return state.recoveries();
+        }
+        return ForwardReturns.compute(series, getFixedPointPrices(series), state.events(), horizons);
+    }
 
-        return drawdownLevels.stream()
-            .map(level -> analyzeDrawdownLevel(stockDataList, level))
-            .collect(Collectors.toList());
+    /**
+     * Analyze historical performance at the requested drawdown levels and horizons
+     * Each level runs as its own stage; results keep the level order
+     */
+    private CompletableFuture<List<DrawdownLevelAnalysis>> analyzeDrawdownLevelsAsync(
+            PriceSeries series,
+            IncrementalAnalysisEngine.Snapshot state,
+            ForwardReturns returns,
+            AnalysisParameters parameters) {
+
+        Executor stages = analysisExecutors.stages();
+        List<CompletableFuture<DrawdownLevelAnalysis>> levels = parameters.levels().stream()
+            .map(level -> CompletableFuture.supplyAsync(
+                () -> analyzeDrawdownLevel(series, state, returns, level, parameters.tolerance()), stages))
+            .toList();
+        return CompletableFuture.allOf(levels.toArray(new CompletableFuture[0]))
+            .thenApply(done -> levels.stream().map(CompletableFuture::join).collect(Collectors.toList()));
     }
 
     /**
      * Analyze historical performance at a specific drawdown level
      */
-    private DrawdownLevelAnalysis analyzeDrawdownLevel(List<StockData> stockDataList, int drawdownLevel) {
-        // Find all historical instances where drawdown was approximately this level (±2.5%)
+    private DrawdownLevelAnalysis analyzeDrawdownLevel(
+            PriceSeries series,
+            IncrementalAnalysisEngine.Snapshot state,
+            ForwardReturns returns,
+            int drawdownLevel,
+            BigDecimal tolerance) {
+        // Find all historical instances where drawdown was approximately this level (± tolerance)
         BigDecimal targetDrawdown = BigDecimal.valueOf(drawdownLevel);
-        BigDecimal tolerance = BigDecimal.valueOf(2.5);
-
-        List<HistoricalDrawdown> historicalCases = findHistoricalDrawdowns(
-            stockDataList,
-            targetDrawdown,
-            tolerance
-        );
+        List<DrawdownEventIndex.Event> events = state.events().findWithin(targetDrawdown, tolerance);
 
         // Calculate average recovery stats if we have cases
         DrawdownLevelAnalysis.AverageRecoveryStats averageStats = null;
-        if (!historicalCases.isEmpty()) {
-            averageStats = calculateAverageRecoveryStats(historicalCases);
+        if (!events.isEmpty()) {
+            averageStats = calculateAverageRecoveryStats(returns, events);
         }
 
-        // Limit to top 10 most recent cases for display
-        List<HistoricalDrawdown> limitedCases = historicalCases.stream()
-            .limit(10)
-            .collect(Collectors.toList());
-
         return DrawdownLevelAnalysis.builder()
             .drawdownLevel(drawdownLevel)
-            .totalCases(historicalCases.size())
+            .totalCases(events.size())
             .averageStats(averageStats)
-            .historicalCases(limitedCases)
+            // Only the first cases are listed, so only they are materialized
+            .historicalCases(toHistoricalDrawdowns(series, returns, events, LEVEL_CASE_LIMIT))
             .build();
     }
 
     /**
-     * Calculate average recovery statistics from multiple historical cases
+     * Average return and number of losing cases per horizon, over every case of a level
      */
     private DrawdownLevelAnalysis.AverageRecoveryStats calculateAverageRecoveryStats(
-            List<HistoricalDrawdown> cases) {
+            ForwardReturns returns,
+            List<DrawdownEventIndex.Event> cases) {
 
-        if (cases.isEmpty()) {
-            return null;
+        int[] peakIndexes = new int[cases.size()];
+        for (int i = 0; i < peakIndexes.length; i++) {
+            peakIndexes[i] = cases.get(i).peakIndex();
         }
 
-        double month1Sum = 0, month3Sum = 0, month6Sum = 0, month12Sum = 0, month24Sum = 0;
-        int month1Loss = 0, month3Loss = 0, month6Loss = 0, month12Loss = 0, month24Loss = 0;
-        int count = cases.size();
+        double[] sums = new double[returns.horizonCount()];
+        int[] losses = new int[returns.horizonCount()];
+        returns.accumulate(peakIndexes, sums, losses);
 
-        for (HistoricalDrawdown hd : cases) {
-            List<RecoveryPeriod> periods = hd.getRecoveryPeriods();
-            if (periods != null && !periods.isEmpty()) {
-                for (RecoveryPeriod period : periods) {
-                    double returnValue = period.getReturnPercent().doubleValue();
-                    switch (period.getMonths()) {
-                        case 1 -> {
-                            month1Sum += returnValue;
-                            if (returnValue < 0) month1Loss++;
-                        }
-                        case 3 -> {
-                            month3Sum += returnValue;
-                            if (returnValue < 0) month3Loss++;
-                        }
-                        case 6 -> {
-                            month6Sum += returnValue;
-                            if (returnValue < 0) month6Loss++;
-                        }
-                        case 12 -> {
-                            month12Sum += returnValue;
-                            if (returnValue < 0) month12Loss++;
-                        }
-                        case 24 -> {
-                            month24Sum += returnValue;
-                            if (returnValue < 0) month24Loss++;
-                        }
-                    }
-                }
-            }
+        int count = cases.size();
+        List<DrawdownLevelAnalysis.HorizonStats> horizons = new ArrayList<>(returns.horizonCount());
+        for (int h = 0; h < returns.horizonCount(); h++) {
+            horizons.add(DrawdownLevelAnalysis.HorizonStats.builder()
+                .months(returns.months(h))
+                .averageReturn(Math.round(sums[h] / count * 100.0) / 100.0)
+                .lossCount(losses[h])
+                .build());
         }
 
         return DrawdownLevelAnalysis.AverageRecoveryStats.builder()
-            .month1Avg(Math.round(month1Sum / count * 100.0) / 100.0)
-            .month1LossCount(month1Loss)
-            .month3Avg(Math.round(month3Sum / count * 100.0) / 100.0)
-            .month3LossCount(month3Loss)
-            .month6Avg(Math.round(month6Sum / count * 100.0) / 100.0)
-            .month6LossCount(month6Loss)
-            .month12Avg(Math.round(month12Sum / count * 100.0) / 100.0)
-            .month12LossCount(month12Loss)
-            .month24Avg(Math.round(month24Sum / count * 100.0) / 100.0)
-            .month24LossCount(month24Loss)
+            .horizons(horizons)
             .build();
     }
 
+    /**
+     * Chart of a historical drawdown event, identified by its peak date
+     * @param eventId peak date ("yyyy-MM-dd") as returned in {@link HistoricalDrawdown#getEventId()}
+     * @return empty if the date is not the peak of a drawdown event in the current series
+     */
+    public Optional<ChartData> getEventChart(String ticker, String eventId) {
+        return getEventChart(ticker, eventId, null);
+    }
+
+    /**
+     * Chart of a historical drawdown event, reduced to {@code points} bars with LTTB
+     * The peak and bottom bars are always kept; reduced charts are cached per series content.
+     * @param points number of bars to keep, or null for every bar
+     */
+    public Optional<ChartData> getEventChart(String ticker, String eventId, Integer points) {
+        checkChartPoints(points);
+
+        LocalDate peakDate;
+        try {
+            peakDate = LocalDate.parse(eventId);
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+
+        PriceSeries series = stockDataService.getPriceSeries(ticker, 0);
+        int peakIndex = series.lowerBound(peakDate.toEpochDay());
+        if (peakIndex == series.size() || series.epochDay(peakIndex) != peakDate.toEpochDay()) {
+            return Optional.empty();
+        }
+
+        return incrementalAnalysis.advance(ticker, series).events().findByPeak(peakIndex)
+            .map(event -> points == null
+                ? generateHistoricalDrawdownChartData(series, event.peakIndex(), event.bottomIndex(), null)
+                : cached(downsampledCharts, new ChartKey(ticker, series.contentHash(), eventId, points),
+                    () -> generateHistoricalDrawdownChartData(series, event.peakIndex(), event.bottomIndex(), points)));
+    }
+
     /**
      * Generate chart data for a historical drawdown event
-     * Shows price pattern from 3 months before peak to 12 months after bottom
+     * Shows price pattern from 3 months before peak to 12 months after bottom.
+     * @param points number of bars to keep with the peak and bottom among them, or null for every bar
      */
     private ChartData generateHistoricalDrawdownChartData(
-            List<StockData> stockDataList,
+            PriceSeries series,
             int peakIndex,
-            int bottomIndex) {
+            int bottomIndex,
+            Integer points) {
 
         // Calculate date range: 3 months before peak to 12 months after bottom
-        LocalDate peakDate = stockDataList.get(peakIndex).getDate();
-        LocalDate bottomDate = stockDataList.get(bottomIndex).getDate();
+        LocalDate peakDate = series.date(peakIndex);
+        LocalDate bottomDate = series.date(bottomIndex);
         LocalDate startDate = peakDate.minusMonths(3);
         LocalDate endDate = bottomDate.plusMonths(12);
 
-        // Filter data within this range
-        List<StockData> chartDataList = stockDataList.stream()
-            .filter(data -> !data.getDate().isBefore(startDate) && !data.getDate().isAfter(endDate))
-            .sorted((a, b) -> a.getDate().compareTo(b.getDate()))
-            .collect(Collectors.toList());
+        // Data within this range is a contiguous slice of the sorted series
+        int from = series.lowerBound(startDate.toEpochDay());
+        int to = series.upperBound(endDate.toEpochDay());
 
-        if (chartDataList.isEmpty()) {
-            return null;
-        }
-
-        // Extract labels and prices
-        List<String> labels = chartDataList.stream()
-            .map(data -> data.getDate().toString())
-            .collect(Collectors.toList());
-
-        List<BigDecimal> prices = chartDataList.stream()
-            .map(StockData::getClose)
-            .collect(Collectors.toList());
+        return chartData(series, from, to, peakIndex, points, peakIndex, bottomIndex);
+    }
 
-        // Peak price for reference
-        BigDecimal peakPrice = stockDataList.get(peakIndex).getClose();
+    /**
+     * Chart of the bars [from, to)
+     * Without a point count, labels and prices are views over the series rather than copies.
+     * @param peakIndex bar shown as the reference peak
+     * @param points    number of bars to keep with LTTB, or null for every bar
+     * @param pinned    bars kept whatever the reduction
+     */
+    private static ChartData chartData(PriceSeries series, int from, int to, int peakIndex,
+                                       Integer points, int... pinned) {
+        List<String> labels;
+        List<BigDecimal> prices;
+        if (points == null) {
+            labels = series.dateLabels(from, to);
+            prices = series.closeDecimals(from, to);
+        } else {
+            int[] relative = Arrays.stream(pinned).filter(i -> i >= from && i < to).map(i -> i - from).toArray();
+            int[] kept = Downsampling.largestTriangleThreeBuckets(
+                i -> series.epochDay(from + i), i -> series.close(from + i), to - from, points, relative);
+            labels = new ArrayList<>(kept.length);
+            prices = new ArrayList<>(kept.length);
+            for (int i : kept) {
+                labels.add(series.date(from + i).toString());
+                prices.add(series.closeDecimal(from + i));
+            }
+        }
 
         return ChartData.builder()
             .labels(labels)
             .prices(prices)
-            .peakPrice(peakPrice)
-            .peakDate(peakDate.toString())
+            .peakPrice(series.closeDecimal(peakIndex))
+            .peakDate(series.date(peakIndex).toString())
             .build();
     }
 
     /**
      * Generate chart data for the last year
+     * @param peakIndex all-time high of the series, for reference
+     * @param points    number of bars to keep with the year's high and low among them, or null for every bar
      */
-    public ChartData generateOneYearChartData(List<StockData> stockDataList) {
-        if (stockDataList.isEmpty()) {
-            return null;
-        }
+    private ChartData generateOneYearChartData(PriceSeries series, int peakIndex, Integer points) {
 
         // Get the latest date
-        LocalDate latestDate = stockDataList.stream()
-            .max((a, b) -> a.getDate().compareTo(b.getDate()))
-            .map(StockData::getDate)
-            .orElse(LocalDate.now());
+        LocalDate latestDate = series.lastDate();
 
         // Filter for last 365 days
         LocalDate oneYearAgo = latestDate.minusDays(365);
+        int from = series.lowerBound(oneYearAgo.toEpochDay());
 
-        List<StockData> lastYearData = stockDataList.stream()
-            .filter(data -> !data.getDate().isBefore(oneYearAgo))
-            .sorted((a, b) -> a.getDate().compareTo(b.getDate()))
-            .collect(Collectors.toList());
-
-        if (lastYearData.isEmpty()) {
-            return null;
+        if (points == null) {
+            return chartData(series, from, series.size(), peakIndex, null);
         }
+        PriceRangeIndex.Range year = getRangeIndex(series).query(from, series.size() - 1);
+        return chartData(series, from, series.size(), peakIndex, points, peakIndex, year.maxIndex(), year.minIndex());
+    }
 
-        // Find peak in all data for reference
-        StockData peakData = stockDataList.stream()
-            .max((a, b) -> a.getClose().compareTo(b.getClose()))
-            .orElse(null);
+    /**
+     * Validators of an analysis response, known before any analysis work runs
+     * @param tag          strong entity tag, quoted
+     * @param lastModified newest data version of the analyzed tickers; versions are file modification
+     *                     times in epoch milliseconds
+     */
+    public record ResponseVersion(String tag, long lastModified) {
+    }
 
-        List<String> labels = lastYearData.stream()
-            .map(data -> data.getDate().toString())
-            .collect(Collectors.toList());
+    /**
+     * Version of the analysis of {@code tickers} with these parameters, from the tickers' metadata only
+     * It changes whenever a ticker's data version, the parameters or the response format change.
+     * A data file replaced outside the application moves the version too, whether or not the ticker is
+     * resident, since the repository drops metadata built from an older file.
+     * @return empty if a ticker has no data
+     */
+    public Optional<ResponseVersion> getResponseVersion(
+            List<String> tickers,
+            int yearsBack,
+            AnalysisParameters parameters,
+            Integer chartPoints) {
+        return getResponseVersion(tickers, yearsBack, parameters, chartPoints, EnumSet.allOf(AnalysisField.class));
+    }
 
-        List<BigDecimal> prices = lastYearData.stream()
-            .map(StockData::getClose)
-            .collect(Collectors.toList());
+    /**
+     * {@link #getResponseVersion(List, int, AnalysisParameters, Integer)} of a response with only {@code fields}
+     */
+    public Optional<ResponseVersion> getResponseVersion(
+            List<String> tickers,
+            int yearsBack,
+            AnalysisParameters parameters,
+            Integer chartPoints,
+            Set<AnalysisField> fields) {
+        StringBuilder id = new StringBuilder("format=").append(AnalysisCache.FORMAT_VERSION)
+            .append(";points=").append(chartPoints);
+        if (fields.size() < AnalysisField.values().length) {
+            id.append(";fields=").append(fields);
+        }
+        long lastModified = 0;
+        for (String ticker : tickers) {
+            Optional<TickerMetadata> metadata = stockDataService.getMetadata(ticker);
+            if (metadata.isEmpty()) {
+                return Optional.empty();
+            }
+            long version = metadata.get().getVersion();
+            id.append('|').append(ticker).append('@').append(version)
+                .append(';').append(new AnalysisCache.Key(ticker, parameters).id());
+            lastModified = Math.max(lastModified, version);
+        }
 
-        return ChartData.builder()
-            .labels(labels)
-            .prices(prices)
-            .peakPrice(peakData != null ? peakData.getClose() : null)
-            .peakDate(peakData != null ? peakData.getDate().toString() : null)
-            .build();
+        String tag = '"' + UUID.nameUUIDFromBytes(id.toString().getBytes(StandardCharsets.UTF_8)).toString() + '"';
+        return Optional.of(new ResponseVersion(tag, lastModified));
     }
 
     /**
      * Get comprehensive analysis for a ticker
+     * Results are cached per parameters and series content, so only the first request
+     * after new bars arrive recomputes, starting from the ticker's running state.
      */
     public com.example.demo.dto.StockAnalysisResponse analyzeStock(String ticker, int yearsBack) {
+        return analyzeStock(ticker, yearsBack, AnalysisParameters.DEFAULT);
+    }
+
+    /**
+     * Get comprehensive analysis for a ticker with the given levels, tolerance and horizons
+     */
+    public com.example.demo.dto.StockAnalysisResponse analyzeStock(
+            String ticker,
+            int yearsBack,
+            AnalysisParameters parameters) {
+        return analyzeStock(ticker, yearsBack, parameters, null);
+    }
+
+    /**
+     * Get comprehensive analysis with the one-year chart reduced to {@code chartPoints} bars
+     * The full analysis is cached as usual; the reduced chart is cached per series content and point count.
+     * @param chartPoints number of chart bars to keep with LTTB, or null for every bar
+     */
+    public com.example.demo.dto.StockAnalysisResponse analyzeStock(
+            String ticker,
+            int yearsBack,
+            AnalysisParameters parameters,
+            Integer chartPoints) {
+        checkChartPoints(chartPoints);
         try {
             // Get stock data
-            List<StockData> stockDataList = stockDataService.getStockData(ticker, yearsBack);
+            PriceSeries series = stockDataService.getPriceSeries(ticker, yearsBack);
 
-            if (stockDataList.isEmpty()) {
+            if (series.isEmpty()) {
                 return com.example.demo.dto.StockAnalysisResponse.builder()
                     .message("No data available for " + ticker)
                     .build();
             }
 
+            // Peak, events and recovery returns advanced over the bars added since the last analysis
+            IncrementalAnalysisEngine.Snapshot state = incrementalAnalysis.advance(ticker, series);
+
+            AnalysisCache.Key cacheKey = new AnalysisCache.Key(ticker, parameters);
+            long contentHash = state.contentHash();
+            Optional<com.example.demo.dto.StockAnalysisResponse> cached = analysisCache.get(cacheKey, contentHash);
+            if (cached.isPresent()) {
+                return withChartPoints(ticker, series, state, cached.get(), chartPoints);
+            }
+
+            // Independent stages run concurrently; similar cases and levels share the state's event index
+            Executor stages = analysisExecutors.stages();
+
             // Calculate current drawdown
-            DrawdownAnalysis currentDrawdown = calculateCurrentDrawdown(ticker, stockDataList);
+            CompletableFuture<DrawdownAnalysis> currentDrawdown = CompletableFuture.supplyAsync(
+                () -> calculateCurrentDrawdown(ticker, series, state), stages);
+
+            // Returns of every event at the requested horizons, shared by similar cases and levels
+            ForwardReturns returns = getForwardReturns(series, state, parameters);
 
-            // Find similar historical drawdowns (within 2.5% tolerance)
-            List<HistoricalDrawdown> historicalDrawdowns = findHistoricalDrawdowns(
-                stockDataList,
-                currentDrawdown.getDrawdownPercent(),
-                BigDecimal.valueOf(2.5)
-            );
+            // Find similar historical drawdowns (within tolerance); binary searches on the event index
+            CompletableFuture<List<HistoricalDrawdown>> historicalDrawdowns = currentDrawdown.thenApplyAsync(
+                current -> findSimilarDrawdowns(series, state, returns, current.getDrawdownPercent(),
+                    parameters.tolerance()),
+                stages);
 
-            // Analyze fixed drawdown levels (10%, 15%, 20%, etc.)
-            List<DrawdownLevelAnalysis> drawdownLevelAnalyses = analyzeDrawdownLevels(stockDataList);
+            // Analyze drawdown levels (10%, 15%, 20%, etc. by default)
+            CompletableFuture<List<DrawdownLevelAnalysis>> drawdownLevelAnalyses =
+                analyzeDrawdownLevelsAsync(series, state, returns, parameters);
 
             // Generate 1-year chart data
-            ChartData oneYearChartData = generateOneYearChartData(stockDataList);
+            CompletableFuture<ChartData> oneYearChartData = CompletableFuture.supplyAsync(
+                () -> generateOneYearChartData(series, state.peakIndex(), null), stages);
 
             // Get data date range
-            LocalDate startDate = stockDataList.stream()
-                .map(StockData::getDate)
-                .min(LocalDate::compareTo)
-                .orElse(null);
+            LocalDate startDate = series.firstDate();
+            LocalDate endDate = series.lastDate();
+
+            com.example.demo.dto.StockAnalysisResponse response = com.example.demo.dto.StockAnalysisResponse.builder()
+                .currentDrawdown(await(currentDrawdown))
+                .historicalDrawdowns(await(historicalDrawdowns))
+                .drawdownLevelAnalyses(await(drawdownLevelAnalyses))
+                .oneYearChartData(await(oneYearChartData))
+                .dataStartDate(startDate != null ? startDate.toString() : null)
+                .dataEndDate(endDate != null ? endDate.toString() : null)
+                .message("Analysis completed successfully")
+                .build();
 
-            LocalDate endDate = stockDataList.stream()
-                .map(StockData::getDate)
-                .max(LocalDate::compareTo)
-                .orElse(null);
+            analysisCache.put(cacheKey, contentHash, response);
+            return withChartPoints(ticker, series, state, response, chartPoints);
 
+        } catch (CancellationException e) {
+            // Cancelled at the scope's deadline; the scope reports the timeout
+            throw e;
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Error analyzing stock {}", ticker, cause);
             return com.example.demo.dto.StockAnalysisResponse.builder()
-                .currentDrawdown(currentDrawdown)
-                .historicalDrawdowns(historicalDrawdowns)
-                .drawdownLevelAnalyses(drawdownLevelAnalyses)
+                .message("Error: " + cause.getMessage())
+                .build();
+        }
+    }
+
+    /**
+     * The response with its one-year chart reduced to {@code chartPoints} bars, or itself without a point count
+     */
+    private com.example.demo.dto.StockAnalysisResponse withChartPoints(
+            String ticker,
+            PriceSeries series,
+            IncrementalAnalysisEngine.Snapshot state,
+            com.example.demo.dto.StockAnalysisResponse response,
+            Integer chartPoints) {
+        if (chartPoints == null) {
+            return response;
+        }
+        ChartData chart = cached(downsampledCharts, new ChartKey(ticker, state.contentHash(), "1y", chartPoints),
+            () -> generateOneYearChartData(series, state.peakIndex(), chartPoints));
+        return response.toBuilder().oneYearChartData(chart).build();
+    }
+
+    /**
+     * Analyze several tickers concurrently on the ticker executor, within the executors' deadline
+     * @return results in the order of {@code tickers}; a failing or late ticker only affects its own entry
+     */
+    public Map<String, com.example.demo.dto.StockAnalysisResponse> analyzeAll(List<String> tickers, int yearsBack) {
+        return analyzeAll(tickers, yearsBack, AnalysisParameters.DEFAULT);
+    }
+
+    /**
+     * {@link #analyzeAll(List, int)} with the given levels, tolerance and horizons
+     */
+    public Map<String, com.example.demo.dto.StockAnalysisResponse> analyzeAll(
+            List<String> tickers,
+            int yearsBack,
+            AnalysisParameters parameters) {
+        return analyzeAll(tickers, yearsBack, parameters, null);
+    }
+
+    /**
+     * {@link #analyzeAll(List, int, AnalysisParameters)} with one-year charts reduced to {@code chartPoints} bars
+     */
+    public Map<String, com.example.demo.dto.StockAnalysisResponse> analyzeAll(
+            List<String> tickers,
+            int yearsBack,
+            AnalysisParameters parameters,
+            Integer chartPoints) {
+        checkChartPoints(chartPoints);
+        return analyzeConcurrently(tickers, ticker -> analyzeStock(ticker, yearsBack, parameters, chartPoints));
+    }
+
+    /**
+     * Analyze a batch of tickers, computing only the requested fields of each response
+     * Fields that were not requested are null. Series and event indexes are the ones kept per ticker
+     * and per series content, so they are shared with single analyses and across batches.
+     * @return results in the order of {@code tickers}; a failing or late ticker only affects its own entry
+     */
+    public Map<String, com.example.demo.dto.StockAnalysisResponse> analyzeBatch(
+            List<String> tickers,
+            Set<AnalysisField> fields,
+            int yearsBack,
+            AnalysisParameters parameters,
+            Integer chartPoints) {
+        checkChartPoints(chartPoints);
+        if (fields.size() == AnalysisField.values().length) {
+            return analyzeAll(tickers, yearsBack, parameters, chartPoints);
+        }
+        return analyzeConcurrently(tickers, ticker -> analyzeFields(ticker, fields, yearsBack, parameters, chartPoints));
+    }
+
+    /**
+     * Only the requested fields of the analysis of one ticker
+     * A cached full analysis is projected when one exists; otherwise each field runs only its own stage,
+     * and the partial response is not cached as a full analysis.
+     */
+    private com.example.demo.dto.StockAnalysisResponse analyzeFields(
+            String ticker,
+            Set<AnalysisField> fields,
+            int yearsBack,
+            AnalysisParameters parameters,
+            Integer chartPoints) {
+        try {
+            PriceSeries series = stockDataService.getPriceSeries(ticker, yearsBack);
+
+            if (series.isEmpty()) {
+                return com.example.demo.dto.StockAnalysisResponse.builder()
+                    .message("No data available for " + ticker)
+                    .build();
+            }
+
+            IncrementalAnalysisEngine.Snapshot state = incrementalAnalysis.advance(ticker, series);
+
+            // Similar cases and levels are the costly fields; reuse them from a full analysis if one is cached
+            boolean scansEvents = fields.contains(AnalysisField.SIMILAR) || fields.contains(AnalysisField.LEVELS);
+            if (scansEvents) {
+                Optional<com.example.demo.dto.StockAnalysisResponse> cached =
+                    analysisCache.get(new AnalysisCache.Key(ticker, parameters), state.contentHash());
+                if (cached.isPresent()) {
+                    return project(withChartPoints(ticker, series, state, cached.get(), chartPoints), fields);
+                }
+            }
+
+            Executor stages = analysisExecutors.stages();
+
+            // The current drawdown is O(1) from the running state; similar cases need its percentage
+            DrawdownAnalysis currentDrawdown = fields.contains(AnalysisField.CURRENT_DRAWDOWN)
+                    || fields.contains(AnalysisField.SIMILAR)
+                ? calculateCurrentDrawdown(ticker, series, state)
+                : null;
+
+            ForwardReturns returns = scansEvents ? getForwardReturns(series, state, parameters) : null;
+
+            CompletableFuture<List<HistoricalDrawdown>> historicalDrawdowns = fields.contains(AnalysisField.SIMILAR)
+                ? CompletableFuture.supplyAsync(() -> findSimilarDrawdowns(series, state, returns,
+                    currentDrawdown.getDrawdownPercent(), parameters.tolerance()), stages)
+                : CompletableFuture.completedFuture(null);
+
+            CompletableFuture<List<DrawdownLevelAnalysis>> drawdownLevelAnalyses = fields.contains(AnalysisField.LEVELS)
+                ? analyzeDrawdownLevelsAsync(series, state, returns, parameters)
+                : CompletableFuture.completedFuture(null);
+
+            ChartData oneYearChartData = null;
+            if (fields.contains(AnalysisField.CHARTS)) {
+                oneYearChartData = chartPoints != null
+                    ? cached(downsampledCharts, new ChartKey(ticker, state.contentHash(), "1y", chartPoints),
+                        () -> generateOneYearChartData(series, state.peakIndex(), chartPoints))
+                    : generateOneYearChartData(series, state.peakIndex(), null);
+            }
+
+            return com.example.demo.dto.StockAnalysisResponse.builder()
+                .currentDrawdown(fields.contains(AnalysisField.CURRENT_DRAWDOWN) ? currentDrawdown : null)
+                .historicalDrawdowns(await(historicalDrawdowns))
+                .drawdownLevelAnalyses(await(drawdownLevelAnalyses))
                 .oneYearChartData(oneYearChartData)
-                .dataStartDate(startDate != null ? startDate.toString() : null)
-                .dataEndDate(endDate != null ? endDate.toString() : null)
+                .dataStartDate(series.firstDate().toString())
+                .dataEndDate(series.lastDate().toString())
                 .message("Analysis completed successfully")
                 .build();
 
+        } catch (CancellationException e) {
+            // Cancelled at the scope's deadline; the scope reports the timeout
+            throw e;
         } catch (Exception e) {
-            log.error("Error analyzing stock {}", ticker, e);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Error analyzing stock {}", ticker, cause);
             return com.example.demo.dto.StockAnalysisResponse.builder()
-                .message("Error: " + e.getMessage())
+                .message("Error: " + cause.getMessage())
                 .build();
         }
     }
+
+    /**
+     * The response with the fields that were not requested left out
+     */
+    private static com.example.demo.dto.StockAnalysisResponse project(
+            com.example.demo.dto.StockAnalysisResponse response,
+            Set<AnalysisField> fields) {
+        return response.toBuilder()
+            .currentDrawdown(fields.contains(AnalysisField.CURRENT_DRAWDOWN) ? response.getCurrentDrawdown() : null)
+            .historicalDrawdowns(fields.contains(AnalysisField.SIMILAR) ? response.getHistoricalDrawdowns() : null)
+            .drawdownLevelAnalyses(fields.contains(AnalysisField.LEVELS) ? response.getDrawdownLevelAnalyses() : null)
+            .oneYearChartData(fields.contains(AnalysisField.CHARTS) ? response.getOneYearChartData() : null)
+            .build();
+    }
+
+    /**
+     * Result of a stage, waited for interruptibly
+     * A ticker task cancelled at its scope's deadline stops here and cancels the stage instead of waiting it out,
+     * which {@link CompletableFuture#join()} would do.
+     */
+    private static <T> T await(CompletableFuture<T> stage) {
+        try {
+            return stage.get();
+        } catch (InterruptedException e) {
+            stage.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Analysis cancelled");
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Run {@code analysis} for every ticker in a scope on the ticker executor, within the executors' deadline
+     */
+    private Map<String, com.example.demo.dto.StockAnalysisResponse> analyzeConcurrently(
+            List<String> tickers,
+            Function<String, com.example.demo.dto.StockAnalysisResponse> analysis) {
+
+        // Each ticker loads its series and runs its analysis in the scope; all of it ends by the deadline
+        Map<String, Future<com.example.demo.dto.StockAnalysisResponse>> futures = new LinkedHashMap<>();
+        try (AnalysisScope scope = new AnalysisScope(analysisExecutors.tickers(), analysisExecutors.timeout())) {
+            for (String ticker : tickers) {
+                futures.put(ticker, scope.fork(() -> analysis.apply(ticker)));
+            }
+            if (!scope.join()) {
+                log.warn("Analysis of {} tickers did not finish within {}", tickers.size(), analysisExecutors.timeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Map<String, com.example.demo.dto.StockAnalysisResponse> results = new LinkedHashMap<>();
+        futures.forEach((ticker, future) -> {
+            switch (future.state()) {
+                case SUCCESS -> results.put(ticker, future.resultNow());
+                case FAILED -> {
+                    log.error("Error analyzing {}", ticker, future.exceptionNow());
+                    results.put(ticker, com.example.demo.dto.StockAnalysisResponse.builder()
+                        .message("Error: " + future.exceptionNow().getMessage())
+                        .build());
+                }
+                default -> results.put(ticker, com.example.demo.dto.StockAnalysisResponse.builder()
+                    .message("Error: analysis of " + ticker + " timed out")
+                    .build());
+            }
+        });
+        return results;
+    }
 }
@@ -0,0 +1,170 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PriceSeries;
+import com.example.demo.model.TickerMetadata;
+import com.example.demo.repository.InvestingCsvReader;
+import com.example.demo.repository.JsonDataRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Investing.com CSV 가져오기
+ *
+ * history/ 폴더의 {@code <TICKER>_historical_data.csv} 파일을 병렬로 읽어
+ * 저장소 형식(JSON + 스냅샷)으로 바로 저장합니다.
+ * 시작 시 가져오기(기본 꺼짐)는 CSV 마지막 날짜가 저장된 데이터의 마지막 날짜보다 늦은 경우만 가져옵니다.
+ * 파일 수정 시각은 체크아웃마다 달라지므로 보지 않습니다. 관리자 API로 전체를 다시 가져올 수 있습니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CsvImportService {
+
+    private static final String HISTORY_DIR = "history";
+    private static final String CSV_SUFFIX = "_historical_data.csv";
+
+    private final JsonDataRepository jsonDataRepository;
+
+    @Value("${data.import.on-startup:false}")
+    private boolean importOnStartup;
+
+    /**
+     * 애플리케이션 시작 시 변경된 CSV만 가져오기
+     */
+    @PostConstruct
+    public void importOnStartup() {
+        if (!importOnStartup) {
+            return;
+        }
+        Map<String, String> results = importAll(false);
+        if (!results.isEmpty()) {
+            log.info("Imported CSV files on startup: {}", results);
+        }
+    }
+
+    /**
+     * history/ 폴더의 CSV 파일 가져오기
+     * @param force false면 저장된 데이터보다 마지막 날짜가 늦은 CSV만 가져옴
+     * @return 가져온(또는 실패한) ticker별 결과 메시지 (ticker 순)
+     */
+    public Map<String, String> importAll(boolean force) {
+        List<Path> pending = listCsvFiles();
+        Map<String, String> results = new LinkedHashMap<>();
+        if (pending.isEmpty()) {
+            return results;
+        }
+
+        long start = System.nanoTime();
+        int threads = Math.min(pending.size(), Runtime.getRuntime().availableProcessors());
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            Map<String, Future<Integer>> futures = new LinkedHashMap<>();
+            for (Path file : pending) {
+                futures.put(tickerOf(file), executor.submit(() -> importFile(file, force)));
+            }
+
+            for (Map.Entry<String, Future<Integer>> entry : futures.entrySet()) {
+                try {
+                    Integer imported = entry.getValue().get();
+                    if (imported != null) {
+                        results.put(entry.getKey(), "Imported " + imported + " records");
+                    }
+                } catch (ExecutionException e) {
+                    log.error("Failed to import CSV for {}", entry.getKey(), e.getCause());
+                    results.put(entry.getKey(), "Failed: " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.put(entry.getKey(), "Interrupted");
+                }
+            }
+        }
+
+        log.info("Imported {} of {} CSV files in {} ms", results.size(), pending.size(), (System.nanoTime() - start) / 1_000_000);
+        return results;
+    }
+
+    /**
+     * 특정 ticker의 CSV 가져오기
+     * @return 저장된 레코드 수
+     */
+    public int importTicker(String ticker) throws IOException {
+        Path file = Paths.get(HISTORY_DIR, ticker + CSV_SUFFIX);
+        if (!Files.exists(file)) {
+            throw new IllegalArgumentException("No CSV file found for " + ticker + ": " + file);
+        }
+        return importFile(file, true);
+    }
+
+    /**
+     * CSV 전체로 기본 데이터를 교체
+     * CSV 마지막 날짜 이후에 일별 업데이트로 추가된 데이터는 유지합니다.
+     * @param force false면 CSV 마지막 날짜가 저장된 데이터보다 늦을 때만 교체
+     * @return 저장된 레코드 수, 건너뛰면 null
+     */
+    private Integer importFile(Path file, boolean force) throws IOException {
+        String ticker = tickerOf(file);
+        PriceSeries imported = InvestingCsvReader.read(file);
+        if (imported.isEmpty()) {
+            throw new IOException("No rows in " + file.getFileName());
+        }
+        if (!force && !isNewerThanData(ticker, imported)) {
+            log.debug("Skipping {}: no bars after the stored data", file.getFileName());
+            return null;
+        }
+
+        if (jsonDataRepository.hasData(ticker)) {
+            PriceSeries existing = jsonDataRepository.loadPriceSeries(ticker);
+            int newer = existing.upperBound(imported.epochDay(imported.size() - 1));
+            imported = imported.mergeWith(existing.slice(newer, existing.size()));
+        }
+
+        jsonDataRepository.saveSeries(ticker, imported);
+        return imported.size();
+    }
+
+    private List<Path> listCsvFiles() {
+        Path dir = Paths.get(HISTORY_DIR);
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + CSV_SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            log.error("Error listing CSV files in {}", dir, e);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * Whether the CSV reaches past the last stored date
+     */
+    private boolean isNewerThanData(String ticker, PriceSeries imported) {
+        return jsonDataRepository.getMetadata(ticker)
+            .map(TickerMetadata::getLastDate)
+            .map(lastDate -> imported.lastDate().isAfter(lastDate))
+            .orElse(true);
+    }
+
+    private static String tickerOf(Path csvFile) {
+        String fileName = csvFile.getFileName().toString();
+        return fileName.substring(0, fileName.length() - CSV_SUFFIX.length()).toUpperCase();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.JsonDataRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * 데이터 디렉토리 감시
+ *
+ * JSON 파일이 외부에서 변경되면 (예: 파일을 직접 교체)
+ * 해당 ticker의 메모리에 게시된 시계열을 무효화합니다.
+ * 애플리케이션이 직접 쓴 파일은 이미 새 버전이 게시되어 있으므로 무시됩니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DataDirectoryWatcher {
+
+    private static final String JSON_EXTENSION = ".json";
+
+    private final JsonDataRepository jsonDataRepository;
+
+    private WatchService watchService;
+
+    @PostConstruct
+    public void start() {
+        Path dataDir = jsonDataRepository.getDataDirectory();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            dataDir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            log.warn("Cannot watch {} - cached data will only be refreshed by updates", dataDir, e);
+            return;
+        }
+
+        Thread thread = new Thread(this::watch, "data-dir-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching {} for data changes", dataDir);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        jsonDataRepository.evictAll();
+                        continue;
+                    }
+
+                    String fileName = event.context().toString();
+                    // Only the JSON files are sources of truth; snapshots are written by us
+                    if (fileName.endsWith(JSON_EXTENSION) && !fileName.endsWith("_analysis" + JSON_EXTENSION)) {
+                        jsonDataRepository.evictIfModified(fileName.substring(0, fileName.length() - JSON_EXTENSION.length()));
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("Data directory is no longer accessible - stopped watching");
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+}
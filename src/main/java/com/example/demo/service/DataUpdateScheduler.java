@@ -1,26 +1,29 @@
 package com.example.demo.service;
 
+import com.example.demo.repository.JsonDataRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
 import java.util.List;
 
 /**
- * 데이터 업데이트 스케줄러 (비활성화됨)
+ * 데이터 업데이트 스케줄러
  *
- * Yahoo Finance API 대신 로컬 CSV 데이터를 사용하므로 자동 업데이트는 비활성화되었습니다.
+ * Yahoo Finance API 대신 로컬 CSV 데이터를 사용하므로 Yahoo 자동 업데이트는 비활성화되었습니다.
  * 데이터를 업데이트하려면:
  * 1. history/ 폴더의 CSV 파일을 업데이트
- * 2. python3 convert_csv_to_json.py 실행
+ * 2. 애플리케이션 재시작 또는 GET /api/admin/import (CsvImportService)
+ *
+ * 일별 업데이트(DataUpdateService)가 남긴 업데이트 세그먼트는 여기서 주기적으로 압축합니다.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DataUpdateScheduler {
 
-    private static final List<String> TICKERS = Arrays.asList("QQQ", "VOO", "SOXX");
+    private final JsonDataRepository jsonDataRepository;
 
     /**
      * Scheduled data update is DISABLED
@@ -28,10 +31,31 @@ public class DataUpdateScheduler {
      *
      * To update data:
      * 1. Update CSV files in history/ folder
-     * 2. Run: python3 convert_csv_to_json.py
+     * 2. Restart, or call GET /api/admin/import
      */
     // @Scheduled(cron = "0 0 21 * * ?")
     // public void updateStockData() {
     //     log.info("Scheduled update is disabled - using local CSV data");
     // }
+
+    /**
+     * 매일 오전 9시 30분에 실행 (오전 9시 업데이트 이후)
+     * 업데이트 세그먼트를 기본 JSON 파일과 스냅샷으로 합칩니다.
+     */
+    @Scheduled(cron = "0 30 9 * * ?")
+    public void compactSegments() {
+        List<String> tickers = jsonDataRepository.getTickersWithSegments();
+        if (tickers.isEmpty()) {
+            return;
+        }
+
+        log.info("Compacting update segments for {}", tickers);
+        for (String ticker : tickers) {
+            try {
+                jsonDataRepository.compact(ticker);
+            } catch (Exception e) {
+                log.error("Failed to compact segments for ticker: {}", ticker, e);
+            }
+        }
+    }
 }
@@ -3,9 +3,12 @@ package com.example.demo.service;
 import com.example.demo.dto.InvestingApiResponse;
 import com.example.demo.model.StockData;
 import com.example.demo.repository.JsonDataRepository;
+import com.example.demo.repository.TickerCatalog;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -13,6 +16,7 @@ import org.springframework.web.client.RestTemplate;
 import java.io.*;
 import java.math.BigDecimal;
 import java.nio.file.*;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -26,15 +30,17 @@ public class DataUpdateService {
     private static final String DATA_DIR = "src/main/resources/history";
     private static final String API_URL = "https://api.investing.com/api/financialdata/historical/%s?start-date=%s&end-date=%s&time-frame=Daily&add-missing-rows=false";
 
-    // Ticker to Investing.com ID mapping
-    private static final Map<String, String> TICKER_ID_MAP = Map.of(
-        "QQQ", "651",
-        "VOO", "38165",
-        "SOXX", "45481"
-    );
-
-    private final RestTemplate restTemplate = new RestTemplate();
+    /**
+     * Interrupting a platform thread does not abort a blocking socket read, so calls also time out on their own
+     */
+    private final RestTemplate restTemplate = new RestTemplate(requestFactory());
     private final JsonDataRepository jsonDataRepository;
+    private final TickerCatalog tickerCatalog;
+    private final IncrementalAnalysisEngine incrementalAnalysis;
+    private final AnalysisExecutors analysisExecutors;
+
+    @Value("${data.update.timeout:10m}")
+    private Duration updateTimeout = Duration.ofMinutes(10);
 
     /**
      * 애플리케이션 시작 시 최신 데이터 확인 및 업데이트
@@ -66,12 +72,27 @@ public class DataUpdateService {
     public void updateAllTickersData() {
         log.info("Starting scheduled data update for all tickers");
 
-        for (String ticker : TICKER_ID_MAP.keySet()) {
-            try {
-                updateTickerData(ticker);
-            } catch (Exception e) {
-                log.error("Failed to update data for ticker: {}", ticker, e);
+        // 카탈로그에서 Investing.com ID가 있는 ticker만 업데이트
+        // 가상 스레드 모드에서는 ticker별 API 호출을 동시에 실행하고, 마감 시각이 지나면 남은 호출을 취소
+        try (AnalysisScope scope = new AnalysisScope(analysisExecutors.io(), updateTimeout)) {
+            for (String ticker : tickerCatalog.getInvestingIds().keySet()) {
+                scope.fork(() -> {
+                    try {
+                        updateTickerData(ticker);
+                    } catch (InterruptedIOException e) {
+                        log.warn("Update of {} was cancelled at the deadline", ticker);
+                    } catch (Exception e) {
+                        log.error("Failed to update data for ticker: {}", ticker, e);
+                    }
+                    return null;
+                });
+            }
+            if (!scope.join()) {
+                log.warn("Data update did not finish within {}; unfinished tickers were cancelled", updateTimeout);
             }
+        } catch (InterruptedException e) {
+            log.warn("Data update interrupted");
+            Thread.currentThread().interrupt();
         }
 
         log.info("Completed scheduled data update");
@@ -81,10 +102,8 @@ public class DataUpdateService {
      * 특정 ticker의 데이터를 업데이트
      */
     public void updateTickerData(String ticker) throws IOException {
-        String investingId = TICKER_ID_MAP.get(ticker);
-        if (investingId == null) {
-            throw new IllegalArgumentException("Unknown ticker: " + ticker);
-        }
+        String investingId = tickerCatalog.getInvestingId(ticker)
+            .orElseThrow(() -> new IllegalArgumentException("Unknown ticker: " + ticker));
 
         String csvFilePath = DATA_DIR + "/" + ticker + ".csv";
         Path path = Paths.get(csvFilePath);
@@ -107,6 +126,11 @@ public class DataUpdateService {
 
         InvestingApiResponse response = restTemplate.getForObject(url, InvestingApiResponse.class);
 
+        // 마감 시각이 지나 취소된 작업은 파일을 건드리지 않음
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Update of " + ticker + " was cancelled");
+        }
+
         if (response == null || response.getData() == null || response.getData().isEmpty()) {
             log.info("No new data available for {}", ticker);
             return;
@@ -121,6 +145,13 @@ public class DataUpdateService {
         log.info("Successfully updated {} records for {} (CSV and JSON)", response.getData().size(), ticker);
     }
 
+    private static SimpleClientHttpRequestFactory requestFactory() {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(Duration.ofSeconds(10));
+        factory.setReadTimeout(Duration.ofSeconds(60));
+        return factory;
+    }
+
     /**
      * CSV 파일에서 마지막 날짜 가져오기
      */
@@ -204,12 +235,14 @@ public class DataUpdateService {
 
     /**
      * JSON 파일 업데이트
+     * 분석 상태는 추가된 봉만큼만 진행시킵니다.
      */
     private void updateJsonFile(String ticker, List<InvestingApiResponse.HistoricalDataPoint> dataPoints) {
         try {
             List<StockData> newData = convertToStockData(dataPoints);
             jsonDataRepository.appendStockData(ticker, newData);
             log.info("Successfully updated JSON file for {}", ticker);
+            incrementalAnalysis.feed(ticker, jsonDataRepository.loadPriceSeries(ticker));
         } catch (Exception e) {
             log.error("Failed to update JSON file for {}", ticker, e);
             // CSV는 이미 업데이트되었으므로 에러만 로깅하고 계속 진행
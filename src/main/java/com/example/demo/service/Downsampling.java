@@ -0,0 +1,152 @@
+package com.example.demo.service;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * 차트용 다운샘플링
+ *
+ * LTTB(Largest-Triangle-Three-Buckets): 첫 점과 마지막 점을 두고, 나머지를 같은 크기의 구간으로 나눈 뒤
+ * 구간마다 직전에 고른 점과 다음 구간 평균점이 이루는 삼각형이 가장 큰 점 하나를 고릅니다.
+ * 급락·급등처럼 모양을 결정하는 점이 남으므로 수천 개의 봉을 수백 개로 줄여도 곡선의 형태가 유지됩니다.
+ * 반드시 남길 점(고점, 저점 등)이 있으면 그 점들로 곡선을 나누고, 남은 개수를 구간 길이에 비례해 나눠
+ * 구간마다 LTTB를 적용하므로 결과는 요청한 개수와 정확히 같습니다.
+ */
+final class Downsampling {
+
+    /**
+     * Fewest points LTTB can return: the two ends and one bucket
+     */
+    static final int MIN_POINTS = 3;
+
+    private Downsampling() {
+    }
+
+    /**
+     * Indexes in [0, count) of the points LTTB keeps, in ascending order
+     * Exactly {@code min(points, count)} indexes, unless there are at least {@code points} distinct pins,
+     * which are then returned alone.
+     * @param x      x value of each index, increasing
+     * @param y      y value of each index
+     * @param points number of points to keep; every index is kept when it is at least {@code count}
+     * @param pinned indexes that are always kept, such as a peak and a bottom; they count towards {@code points}
+     */
+    static int[] largestTriangleThreeBuckets(IntToDoubleFunction x, IntToDoubleFunction y, int count, int points,
+                                             int... pinned) {
+        if (points < MIN_POINTS) {
+            throw new IllegalArgumentException("At least " + MIN_POINTS + " points are required: " + points);
+        }
+        if (points >= count || pinned.length == 0) {
+            return sample(x, y, count, points);
+        }
+
+        int[] pins = Arrays.stream(pinned).sorted().distinct().toArray();
+        if (pins.length >= points) {
+            return pins;
+        }
+        int[] anchors = IntStream.concat(IntStream.of(0, count - 1), Arrays.stream(pins)).sorted().distinct().toArray();
+        if (anchors.length > points) {
+            // One pin short of the count and neither end pinned: room for the first point only
+            return IntStream.concat(IntStream.of(0), Arrays.stream(pins)).sorted().distinct().toArray();
+        }
+
+        // Each gap between anchors gets buckets in proportion to its length
+        int[] extra = spread(anchors, points - anchors.length, count - anchors.length);
+        IntStream.Builder kept = IntStream.builder();
+        kept.add(anchors[0]);
+        for (int gap = 0; gap < extra.length; gap++) {
+            int start = anchors[gap];
+            int end = anchors[gap + 1];
+            if (extra[gap] > 0) {
+                int[] sampled = sample(i -> x.applyAsDouble(start + i), i -> y.applyAsDouble(start + i),
+                    end - start + 1, extra[gap] + 2);
+                for (int k = 1; k < sampled.length - 1; k++) {
+                    kept.add(start + sampled[k]);
+                }
+            }
+            kept.add(end);
+        }
+        return kept.build().toArray();
+    }
+
+    /**
+     * Split {@code budget} points over the gaps between consecutive anchors in proportion to the
+     * indexes inside each gap, largest remainders first; {@code budget} is less than {@code interior}
+     * @param interior indexes that are not anchors
+     */
+    private static int[] spread(int[] anchors, int budget, int interior) {
+        int[] extra = new int[anchors.length - 1];
+        long[] remainders = new long[extra.length];
+        int given = 0;
+        for (int gap = 0; gap < extra.length; gap++) {
+            long share = (long) budget * (anchors[gap + 1] - anchors[gap] - 1);
+            extra[gap] = (int) (share / interior);
+            remainders[gap] = share % interior;
+            given += extra[gap];
+        }
+        // Fewer than one point per gap is left; a share rounded down is always below the gap's length
+        for (; given < budget; given++) {
+            int largest = 0;
+            for (int gap = 1; gap < extra.length; gap++) {
+                if (remainders[gap] > remainders[largest]) {
+                    largest = gap;
+                }
+            }
+            extra[largest]++;
+            remainders[largest] = -1;
+        }
+        return extra;
+    }
+
+    private static int[] sample(IntToDoubleFunction x, IntToDoubleFunction y, int count, int points) {
+        if (points >= count) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] sampled = new int[points];
+        // Buckets between the fixed first and last point
+        double bucketSize = (double) (count - 2) / (points - 2);
+        int selected = 0;
+
+        for (int bucket = 0; bucket < points - 2; bucket++) {
+            // Average of the next bucket (the last point for the last bucket)
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, count);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x.applyAsDouble(i);
+                averageY += y.applyAsDouble(i);
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+
+            // Point of this bucket with the largest triangle against the last selected point and that average
+            double selectedX = x.applyAsDouble(selected);
+            double selectedY = y.applyAsDouble(selected);
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double largestArea = -1;
+            int largest = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((selectedX - averageX) * (y.applyAsDouble(i) - selectedY)
+                    - (selectedX - x.applyAsDouble(i)) * (averageY - selectedY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    largest = i;
+                }
+            }
+
+            sampled[bucket + 1] = largest;
+            selected = largest;
+        }
+
+        sampled[points - 1] = count - 1;
+        return sampled;
+    }
+}
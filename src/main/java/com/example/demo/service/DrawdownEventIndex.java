@@ -0,0 +1,145 @@
+package com.example.demo.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 시계열별 하락 이벤트 인덱스
+ *
+ * {@link IncrementalAnalysisEngine}이 찾은 고점 → 저점 이벤트를 하락률 순으로 정렬해 둡니다.
+ * "X% ± tolerance 범위의 이벤트" 조회는 이진 탐색으로 처리하므로
+ * 현재 하락률과 고정 하락률 수준별 분석이 전체 스캔을 반복하지 않습니다.
+ * 이벤트는 기본형 배열(고점/저점 인덱스, 베이시스 포인트 하락률)로 보관하며 불변입니다.
+ */
+public final class DrawdownEventIndex {
+
+    /**
+     * Events in peak order
+     */
+    private final int[] peakIndexes;
+    private final int[] bottomIndexes;
+    private final int[] drawdownBasisPoints;
+
+    /**
+     * Drawdown in the high 32 bits and peak-order position in the low 32 bits, ascending:
+     * most severe first, peak order within equal drawdowns
+     */
+    private final long[] byDrawdown;
+
+    /**
+     * Peak-to-bottom drawdown event
+     * @param drawdownBasisPoints percent change from peak to bottom close in 0.01% units
+     */
+    public record Event(int peakIndex, int bottomIndex, int drawdownBasisPoints) {
+
+        public BigDecimal drawdownPercent() {
+            return FixedPointPrices.toPercent(drawdownBasisPoints);
+        }
+    }
+
+    private DrawdownEventIndex(int[] peakIndexes, int[] bottomIndexes, int[] drawdownBasisPoints) {
+        this.peakIndexes = peakIndexes;
+        this.bottomIndexes = bottomIndexes;
+        this.drawdownBasisPoints = drawdownBasisPoints;
+        this.byDrawdown = new long[peakIndexes.length];
+        for (int i = 0; i < byDrawdown.length; i++) {
+            byDrawdown[i] = sortKey(drawdownBasisPoints[i], i);
+        }
+        Arrays.sort(byDrawdown);
+    }
+
+    /**
+     * Index over the given events, in peak order
+     */
+    static DrawdownEventIndex of(int[] peakIndexes, int[] bottomIndexes, int[] drawdownBasisPoints) {
+        return new DrawdownEventIndex(peakIndexes, bottomIndexes, drawdownBasisPoints);
+    }
+
+    public int size() {
+        return peakIndexes.length;
+    }
+
+    /**
+     * Peak of the event at {@code position} in peak order
+     */
+    int peakIndex(int position) {
+        return peakIndexes[position];
+    }
+
+    /**
+     * Bottom of the event at {@code position} in peak order
+     */
+    int bottomIndex(int position) {
+        return bottomIndexes[position];
+    }
+
+    /**
+     * Events whose drawdown is within {@code tolerance} of {@code drawdownPercent} (inclusive), in peak order
+     */
+    public List<Event> findWithin(BigDecimal drawdownPercent, BigDecimal tolerance) {
+        return findWithin(
+            FixedPointPrices.ceilBasisPoints(drawdownPercent.subtract(tolerance)),
+            FixedPointPrices.floorBasisPoints(drawdownPercent.add(tolerance)));
+    }
+
+    /**
+     * Events with a drawdown in [fromBasisPoints, toBasisPoints], in peak order
+     */
+    public List<Event> findWithin(int fromBasisPoints, int toBasisPoints) {
+        if (fromBasisPoints > toBasisPoints) {
+            return List.of();
+        }
+        int from = lowerBound(sortKey(fromBasisPoints, 0));
+        int to = lowerBound(sortKey(toBasisPoints + 1, 0));
+        if (from >= to) {
+            return List.of();
+        }
+
+        int[] positions = new int[to - from];
+        for (int i = from; i < to; i++) {
+            positions[i - from] = (int) byDrawdown[i];
+        }
+        Arrays.sort(positions);
+
+        Event[] matches = new Event[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            matches[i] = event(positions[i]);
+        }
+        return Arrays.asList(matches);
+    }
+
+    /**
+     * Event that starts at the given peak bar, if any
+     */
+    public Optional<Event> findByPeak(int peakIndex) {
+        int position = Arrays.binarySearch(peakIndexes, peakIndex);
+        return position >= 0 ? Optional.of(event(position)) : Optional.empty();
+    }
+
+    private Event event(int position) {
+        return new Event(peakIndexes[position], bottomIndexes[position], drawdownBasisPoints[position]);
+    }
+
+    private static long sortKey(int drawdownBasisPoints, int position) {
+        return ((long) drawdownBasisPoints << 32) | position;
+    }
+
+    /**
+     * First position whose key is at least {@code key}
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = byDrawdown.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byDrawdown[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
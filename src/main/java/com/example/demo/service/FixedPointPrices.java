@@ -0,0 +1,221 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PriceSeries;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 고정소수점 종가 (분석용 수치 커널)
+ *
+ * 종가를 10^scale 단위의 long으로 보관하고, 가격 변화율을 베이시스 포인트(0.01%) 정수로 계산합니다.
+ * 결과는 기존 BigDecimal 계산 {@code (to - from) / from}(소수 4자리 HALF_UP) × 100 과 정확히 같으며,
+ * 계산 중에는 객체를 만들지 않습니다. BigDecimal은 DTO로 내보낼 때만 만듭니다.
+ * 종가가 소수 {@value #MAX_SCALE}자리 안에 정확히 표현되지 않으면 BigDecimal 계산으로 대체합니다.
+ * 여러 쌍을 한 번에 계산할 때는 Vector API 커널(VectorKernels)이 있으면 그것으로 처리합니다.
+ * 커널은 {@code -Pvector} 프로필로 빌드하고 {@code --add-modules jdk.incubator.vector}로 실행할 때만 쓰며,
+ * 어떤 커널을 쓰는지는 처음 사용할 때 한 번 로그로 남깁니다.
+ */
+@Slf4j
+public final class FixedPointPrices {
+
+    /**
+     * Most decimals a close may have to be held exactly
+     */
+    static final int MAX_SCALE = 6;
+
+    /**
+     * Largest unscaled close that keeps {@code difference * 10000} within a long
+     */
+    private static final long MAX_UNITS = 100_000_000_000_000L;
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private static final String VECTOR_KERNELS = FixedPointPrices.class.getPackageName() + ".VectorKernels";
+
+    /**
+     * Kernel for batch calls, or null for the scalar loop
+     */
+    private static final BasisPointKernel VECTOR_KERNEL = loadVectorKernel();
+
+    /**
+     * Closes in units of 10^-scale, or null when some close is not exact at {@link #MAX_SCALE}
+     */
+    private final long[] units;
+
+    /**
+     * Closes for the BigDecimal fallback, only kept when {@link #units} is null
+     */
+    private final double[] closes;
+
+    private FixedPointPrices(long[] units, double[] closes) {
+        this.units = units;
+        this.closes = closes;
+    }
+
+    public static FixedPointPrices of(PriceSeries series) {
+        for (int scale = 2; scale <= MAX_SCALE; scale++) {
+            long[] units = toUnits(series, POWERS_OF_TEN[scale]);
+            if (units != null) {
+                return new FixedPointPrices(units, null);
+            }
+        }
+
+        double[] closes = new double[series.size()];
+        for (int i = 0; i < closes.length; i++) {
+            closes[i] = series.close(i);
+        }
+        return new FixedPointPrices(null, closes);
+    }
+
+    /**
+     * Closes scaled by {@code factor}, or null if any of them is not an exact multiple of 1/factor
+     */
+    private static long[] toUnits(PriceSeries series, long factor) {
+        long[] units = new long[series.size()];
+        for (int i = 0; i < units.length; i++) {
+            long scaled = toUnits(series.close(i), factor);
+            if (scaled == Long.MIN_VALUE) {
+                return null;
+            }
+            units[i] = scaled;
+        }
+        return units;
+    }
+
+    /**
+     * Close scaled by {@code factor}, or Long.MIN_VALUE if it is not an exact multiple of 1/factor
+     */
+    private static long toUnits(double close, long factor) {
+        long scaled = Math.round(close * factor);
+        if (Math.abs(scaled) > MAX_UNITS || (double) scaled / factor != close) {
+            return Long.MIN_VALUE;
+        }
+        return scaled;
+    }
+
+    /**
+     * Whether every close is held in fixed point (false means the BigDecimal fallback is used)
+     */
+    public boolean isExact() {
+        return units != null;
+    }
+
+    /**
+     * Change from the close at {@code fromIndex} to the close at {@code toIndex} in basis points,
+     * i.e. ((to - from) / from) rounded half up to 4 places, times 10000
+     */
+    public int changeBasisPoints(int fromIndex, int toIndex) {
+        if (units == null) {
+            return changeBasisPointsDecimal(fromIndex, toIndex);
+        }
+        return divideBasisPoints(units[fromIndex], units[toIndex]);
+    }
+
+    /**
+     * {@link #changeBasisPoints(int, int)} for the pairs (fromIndexes[i], toIndexes[i]), i in [0, count)
+     */
+    public void changeBasisPoints(int[] fromIndexes, int[] toIndexes, int[] out, int count) {
+        if (units != null && VECTOR_KERNEL != null) {
+            VECTOR_KERNEL.changeBasisPoints(units, fromIndexes, toIndexes, out, count);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            out[i] = changeBasisPoints(fromIndexes[i], toIndexes[i]);
+        }
+    }
+
+    /**
+     * Change between two closes in basis points, the same value {@link #changeBasisPoints(int, int)}
+     * gives for them inside any series; for code that sees bars one at a time
+     */
+    public static int changeBasisPoints(double fromClose, double toClose) {
+        for (int scale = 2; scale <= MAX_SCALE; scale++) {
+            long factor = POWERS_OF_TEN[scale];
+            long from = toUnits(fromClose, factor);
+            long to = toUnits(toClose, factor);
+            if (from != Long.MIN_VALUE && to != Long.MIN_VALUE) {
+                return divideBasisPoints(from, to);
+            }
+        }
+        return changeBasisPointsDecimal(fromClose, toClose);
+    }
+
+    /**
+     * (to - from) / from in basis points, rounded half up
+     */
+    static int divideBasisPoints(long from, long to) {
+        long numerator = (to - from) * 10_000;
+        long quotient = numerator / from;
+        long remainder = numerator % from;
+        // HALF_UP: ties and above round away from zero
+        if (remainder != 0 && 2 * Math.abs(remainder) >= Math.abs(from)) {
+            quotient += (numerator < 0) == (from < 0) ? 1 : -1;
+        }
+        return (int) quotient;
+    }
+
+    private static BasisPointKernel loadVectorKernel() {
+        BasisPointKernel kernel;
+        try {
+            kernel = (BasisPointKernel) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            log.info("Basis point kernel: scalar (built without -Pvector)");
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // jdk.incubator.vector is not in the module graph
+            log.info("Basis point kernel: scalar (start with --add-modules jdk.incubator.vector)");
+            return null;
+        }
+        if (kernel.lanes() < 2) {
+            log.info("Basis point kernel: scalar (one long per vector on this machine)");
+            return null;
+        }
+        log.info("Basis point kernel: Vector API, {} longs per vector", kernel.lanes());
+        return kernel;
+    }
+
+    private int changeBasisPointsDecimal(int fromIndex, int toIndex) {
+        return changeBasisPointsDecimal(closes[fromIndex], closes[toIndex]);
+    }
+
+    private static int changeBasisPointsDecimal(double fromClose, double toClose) {
+        BigDecimal from = BigDecimal.valueOf(fromClose);
+        return BigDecimal.valueOf(toClose).subtract(from)
+            .divide(from, 4, RoundingMode.HALF_UP)
+            .movePointRight(4)
+            .intValueExact();
+    }
+
+    /**
+     * Basis points as a percent with 2 decimals, e.g. -1234 -> -12.34
+     */
+    public static BigDecimal toPercent(int basisPoints) {
+        return BigDecimal.valueOf(basisPoints, 2);
+    }
+
+    /**
+     * Smallest basis point value whose percent is at least {@code percent}
+     */
+    public static int ceilBasisPoints(BigDecimal percent) {
+        return percent.movePointRight(2).setScale(0, RoundingMode.CEILING).intValueExact();
+    }
+
+    /**
+     * Largest basis point value whose percent is at most {@code percent}
+     */
+    public static int floorBasisPoints(BigDecimal percent) {
+        return percent.movePointRight(2).setScale(0, RoundingMode.FLOOR).intValueExact();
+    }
+
+    /**
+     * Batch form of {@link #divideBasisPoints(long, long)} over gathered closes
+     */
+    interface BasisPointKernel {
+
+        int lanes();
+
+        void changeBasisPoints(long[] units, int[] fromIndexes, int[] toIndexes, int[] out, int count);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PriceSeries;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 하락 이벤트 × 기간별 수익률 표
+ *
+ * 이벤트(고점 순)마다 저점에서 N개월 후 가장 가까운 봉까지의 수익률을 베이시스 포인트로 한 번만 계산해
+ * 기본형 배열에 보관합니다. 하락률 수준이 몇 개든 같은 표의 행을 모아 평균만 내므로
+ * 수준 × 기간 격자가 커져도 수익률 계산은 이벤트 × 기간 번만 일어납니다.
+ */
+public final class ForwardReturns {
+
+    private final int[] horizons;
+    private final int[] eventPeaks;
+
+    /**
+     * Row per event in peak order, column per horizon
+     */
+    private final int[] basisPoints;
+
+    ForwardReturns(int[] horizons, int[] eventPeaks, int[] basisPoints) {
+        this.horizons = horizons;
+        this.eventPeaks = eventPeaks;
+        this.basisPoints = basisPoints;
+    }
+
+    /**
+     * Returns for every event of {@code events} at each horizon (months)
+     * The nearest bars are found by binary search; the returns are computed as one batch.
+     */
+    public static ForwardReturns compute(PriceSeries series, FixedPointPrices prices,
+                                         DrawdownEventIndex events, int[] horizons) {
+        int cells = events.size() * horizons.length;
+        int[] eventPeaks = new int[events.size()];
+        int[] fromIndexes = new int[cells];
+        int[] toIndexes = new int[cells];
+        for (int event = 0; event < events.size(); event++) {
+            eventPeaks[event] = events.peakIndex(event);
+            int bottom = events.bottomIndex(event);
+            LocalDate bottomDate = series.date(bottom);
+            for (int h = 0; h < horizons.length; h++) {
+                int cell = event * horizons.length + h;
+                fromIndexes[cell] = bottom;
+                toIndexes[cell] = series.nearestIndex(bottomDate.plusMonths(horizons[h]).toEpochDay(), bottom);
+            }
+        }
+
+        int[] basisPoints = new int[cells];
+        prices.changeBasisPoints(fromIndexes, toIndexes, basisPoints, cells);
+        return new ForwardReturns(horizons.clone(), eventPeaks, basisPoints);
+    }
+
+    public int horizonCount() {
+        return horizons.length;
+    }
+
+    /**
+     * Months of the horizon at {@code horizon}
+     */
+    public int months(int horizon) {
+        return horizons[horizon];
+    }
+
+    /**
+     * Whether the table has exactly these horizons, in this order
+     */
+    public boolean hasHorizons(int[] months) {
+        return Arrays.equals(horizons, months);
+    }
+
+    /**
+     * Return from the bottom of the event starting at {@code peakIndex} to the bar nearest
+     * {@link #months(int)} months later, in basis points
+     */
+    public int basisPoints(int peakIndex, int horizon) {
+        return basisPoints[row(peakIndex) + horizon];
+    }
+
+    /**
+     * Sum of the returns of the given events per horizon, in percent, added in event order,
+     * and the number of negative returns per horizon
+     */
+    public void accumulate(int[] peakIndexes, double[] percentSums, int[] lossCounts) {
+        for (int peakIndex : peakIndexes) {
+            int row = row(peakIndex);
+            for (int h = 0; h < horizons.length; h++) {
+                int value = basisPoints[row + h];
+                percentSums[h] += value / 100.0;
+                if (value < 0) {
+                    lossCounts[h]++;
+                }
+            }
+        }
+    }
+
+    private int row(int peakIndex) {
+        int position = Arrays.binarySearch(eventPeaks, peakIndex);
+        if (position < 0) {
+            throw new IllegalArgumentException("No drawdown event starts at index " + peakIndex);
+        }
+        return position * horizons.length;
+    }
+}
@@ -0,0 +1,447 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PriceSeries;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 티커별 증분 분석 상태
+ *
+ * 전고점, 진행 중인 하락 이벤트(고점 확정 → 저점 창 종료), 아직 날짜가 오지 않은 기본 기간 수익률을
+ * 상태로 들고 있다가 새 봉이 추가되면 그 봉만 처리합니다. 일별 업데이트 비용은 전체 이력 길이가 아니라
+ * 추가된 봉 수에 비례합니다. 하락 이벤트는 여기서만 찾으며, 처음 보는 티커의 시계열은 처음부터 계산합니다.
+ * 디스크에서 다시 읽은 시계열도 저장소가 읽으며 계산해 둔 앞부분 해시가 같으면 다시 해시하지 않고 상태를 이어서 씁니다.
+ * 새 시계열이 이전 상태의 봉으로 시작하지 않으면(재가져오기, 과거 봉 수정) 처음부터 다시 계산합니다.
+ */
+@Slf4j
+@Service
+public class IncrementalAnalysisEngine {
+
+    /**
+     * A peak is the highest close within this many bars on each side
+     */
+    static final int PEAK_WINDOW = 30;
+
+    /**
+     * The bottom is searched within this many bars from the peak
+     */
+    static final int BOTTOM_WINDOW = 180;
+
+    private static final int[] HORIZONS = AnalysisParameters.DEFAULT.horizonMonths();
+
+    private final Map<String, TickerState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Analysis state of a series, immutable once published
+     */
+    public static final class Snapshot {
+        private final long contentHash;
+        private final int peakIndex;
+        private final DrawdownEventIndex events;
+        private final ForwardReturns recoveries;
+
+        private Snapshot(long contentHash, int peakIndex, DrawdownEventIndex events, ForwardReturns recoveries) {
+            this.contentHash = contentHash;
+            this.peakIndex = peakIndex;
+            this.events = events;
+            this.recoveries = recoveries;
+        }
+
+        /**
+         * {@link PriceSeries#contentHash()} of the series, without rehashing it
+         */
+        public long contentHash() {
+            return contentHash;
+        }
+
+        /**
+         * All-time high close (earliest bar on ties)
+         */
+        public int peakIndex() {
+            return peakIndex;
+        }
+
+        public DrawdownEventIndex events() {
+            return events;
+        }
+
+        /**
+         * Returns of every event at the {@link AnalysisParameters#DEFAULT} horizons
+         */
+        public ForwardReturns recoveries() {
+            return recoveries;
+        }
+    }
+
+    /**
+     * Bring the ticker's state up to {@code series} and return it
+     * Only bars after the last processed one are visited when the series starts with the state's bars,
+     * e.g. after an append, a compaction or a reload from disk; otherwise the whole series is replayed.
+     * A replay runs outside any lock and then replaces the state only if nobody advanced it meanwhile,
+     * or if a concurrent replay it races with covers fewer bars, so an older series cannot win.
+     */
+    public Snapshot advance(String ticker, PriceSeries series) {
+        TickerState state = states.get(ticker);
+        int observedSize = -1;
+        if (state != null) {
+            synchronized (state) {
+                if (state.continuedBy(series)) {
+                    return state.advance(series);
+                }
+                observedSize = state.size;
+            }
+        }
+
+        TickerState replayed = new TickerState();
+        Snapshot snapshot = replayed.advance(series);
+        int seen = observedSize;
+        states.compute(ticker, (key, current) -> current == null
+            || (current == state ? current.size() == seen : current.size() <= replayed.size())
+            ? replayed : current);
+        log.debug("Replayed analysis state for {} over {} bars", ticker, series.size());
+        return snapshot;
+    }
+
+    /**
+     * Advance a tracked ticker over bars that were just appended
+     * Tickers that were never analyzed are left alone; their state is built on first use.
+     */
+    public void feed(String ticker, PriceSeries series) {
+        TickerState state = states.get(ticker);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            if (state.continuedBy(series)) {
+                int before = state.size;
+                state.advance(series);
+                log.debug("Advanced analysis state for {} by {} bars", ticker, state.size - before);
+                return;
+            }
+        }
+        advance(ticker, series);
+    }
+
+    /**
+     * Analysis state of a series that is not tracked per ticker, computed in one pass
+     */
+    static Snapshot replay(PriceSeries series) {
+        return new TickerState().advance(series);
+    }
+
+    /**
+     * Running state over the first {@link #size} bars of a series
+     *
+     * Bar i is a peak once bar i + PEAK_WINDOW arrives and no close within PEAK_WINDOW bars on either
+     * side is higher; its bottom is the earliest lowest close up to bar i + BOTTOM_WINDOW - 1, and the
+     * event is dropped when a close above the peak comes before the bottom.
+     * The state keeps sliding windows instead of rescanning: a max deque over the peak window, a min
+     * deque over the bottom window and a stack of open peaks still waiting for a higher close, so each bar costs amortized O(1) even on runs of equal closes.
+     * Finished events only wait for their recovery horizons, which resolve in date order per horizon
+     * because bottoms never move backwards from one event to the next.
+     */
+    private static final class TickerState {
+        long seriesId;
+        int size;
+        long runningHash = PriceSeries.HASH_SEED;
+        int athIndex = -1;
+        Snapshot snapshot;
+
+        // Finished events in peak order
+        int eventCount;
+        int[] peaks = new int[16];
+        int[] bottoms = new int[16];
+        int[] drawdowns = new int[16];
+        long[] targetDays = new long[16 * HORIZONS.length];
+        int[] recoveries = new int[16 * HORIZONS.length];
+
+        /**
+         * Per horizon, the first finished event whose return is still pending
+         */
+        final int[] pending = new int[HORIZONS.length];
+
+        /**
+         * Bars of the peak window [j - 2 * PEAK_WINDOW, j] with decreasing closes
+         */
+        final IndexDeque peakWindow = new IndexDeque(2 * PEAK_WINDOW + 1);
+
+        /**
+         * Bars of the bottom window [j - BOTTOM_WINDOW + 2, j] with increasing closes, earliest first on ties:
+         * the first entry after a peak is the bottom of that peak so far
+         */
+        final IndexDeque bottomWindow = new IndexDeque(BOTTOM_WINDOW - 1);
+
+        /**
+         * Confirmed peaks whose bottom window is still open, in peak order, with the first later bar
+         * that closed higher (-1 while none did)
+         */
+        final IndexDeque openPeaks = new IndexDeque(BOTTOM_WINDOW);
+        final IndexDeque openFirstHigher = new IndexDeque(BOTTOM_WINDOW);
+
+        /**
+         * Open peaks without a higher close yet, by position in {@link #openPeaks}; closes do not increase
+         * from first to last, so a new bar resolves them from the end
+         */
+        final IndexDeque awaitingHigher = new IndexDeque(BOTTOM_WINDOW);
+
+        /**
+         * Whether {@code series} starts with the bars processed so far
+         * Appends are recognized by instance, other instances (reloaded, compacted) by a prefix hash the
+         * series already knows; neither hashes bars here.
+         */
+        boolean continuedBy(PriceSeries series) {
+            if (series.extendsInstance(seriesId)) {
+                return true;
+            }
+            long prefixHash = series.knownPrefixHash(size);
+            return prefixHash != 0 && prefixHash == PriceSeries.finishHash(runningHash);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        Snapshot advance(PriceSeries series) {
+            if (size == series.size() && snapshot != null) {
+                seriesId = series.instanceId();
+                return snapshot;
+            }
+            for (int j = size; j < series.size(); j++) {
+                step(series, j);
+            }
+            size = series.size();
+            seriesId = series.instanceId();
+            snapshot = snapshot(series);
+            return snapshot;
+        }
+
+        private void step(PriceSeries series, int j) {
+            runningHash = series.foldHash(runningHash, j);
+            double close = series.close(j);
+            if (athIndex < 0 || close > series.close(athIndex)) {
+                athIndex = j;
+            }
+
+            // Slide both windows by one bar
+            if (!peakWindow.isEmpty() && peakWindow.first() < j - 2 * PEAK_WINDOW) {
+                peakWindow.removeFirst();
+            }
+            while (!peakWindow.isEmpty() && series.close(peakWindow.last()) <= close) {
+                peakWindow.removeLast();
+            }
+            peakWindow.addLast(j);
+
+            if (!bottomWindow.isEmpty() && bottomWindow.first() < j - BOTTOM_WINDOW + 2) {
+                bottomWindow.removeFirst();
+            }
+            while (!bottomWindow.isEmpty() && series.close(bottomWindow.last()) > close) {
+                bottomWindow.removeLast();
+            }
+            bottomWindow.addLast(j);
+
+            // First close above each waiting peak
+            while (!awaitingHigher.isEmpty()
+                    && series.close(openPeaks.get(awaitingHigher.last() - openPeaks.removed())) < close) {
+                openFirstHigher.set(awaitingHigher.removeLast() - openPeaks.removed(), j);
+            }
+
+            // Bar j closes the bottom window of the oldest open peak
+            if (!openPeaks.isEmpty() && openPeaks.first() + BOTTOM_WINDOW - 1 == j) {
+                int peak = openPeaks.first();
+                int firstHigher = openFirstHigher.first();
+                if (!awaitingHigher.isEmpty() && awaitingHigher.first() == openPeaks.removed()) {
+                    awaitingHigher.removeFirst();
+                }
+                openPeaks.removeFirst();
+                openFirstHigher.removeFirst();
+                int bottom = bottomWindow.first();
+                if (firstHigher < 0 || firstHigher > bottom) {
+                    finish(series, peak, bottom);
+                }
+            }
+
+            // Bar j completes the peak window of bar j - PEAK_WINDOW
+            int candidate = j - PEAK_WINDOW;
+            if (candidate >= PEAK_WINDOW && series.close(peakWindow.first()) <= series.close(candidate)) {
+                awaitingHigher.addLast(openPeaks.removed() + openPeaks.size());
+                openPeaks.addLast(candidate);
+                openFirstHigher.addLast(-1);
+            }
+
+            resolveHorizons(series, series.epochDay(j));
+        }
+
+        private void finish(PriceSeries series, int peak, int bottom) {
+            if (eventCount == peaks.length) {
+                int capacity = eventCount * 2;
+                peaks = Arrays.copyOf(peaks, capacity);
+                bottoms = Arrays.copyOf(bottoms, capacity);
+                drawdowns = Arrays.copyOf(drawdowns, capacity);
+                targetDays = Arrays.copyOf(targetDays, capacity * HORIZONS.length);
+                recoveries = Arrays.copyOf(recoveries, capacity * HORIZONS.length);
+            }
+            peaks[eventCount] = peak;
+            bottoms[eventCount] = bottom;
+            drawdowns[eventCount] = FixedPointPrices.changeBasisPoints(series.close(peak), series.close(bottom));
+            LocalDate bottomDate = series.date(bottom);
+            for (int h = 0; h < HORIZONS.length; h++) {
+                targetDays[eventCount * HORIZONS.length + h] = bottomDate.plusMonths(HORIZONS[h]).toEpochDay();
+            }
+            eventCount++;
+        }
+
+        /**
+         * Fix the returns whose target date has been reached: the nearest bar cannot change any more
+         */
+        private void resolveHorizons(PriceSeries series, long epochDay) {
+            for (int h = 0; h < HORIZONS.length; h++) {
+                int event = pending[h];
+                while (event < eventCount && targetDays[event * HORIZONS.length + h] <= epochDay) {
+                    recoveries[event * HORIZONS.length + h] = recovery(series, bottoms[event],
+                        targetDays[event * HORIZONS.length + h]);
+                    event++;
+                }
+                pending[h] = event;
+            }
+        }
+
+        private static int recovery(PriceSeries series, int bottom, long targetDay) {
+            int closest = series.nearestIndex(targetDay, bottom);
+            return FixedPointPrices.changeBasisPoints(series.close(bottom), series.close(closest));
+        }
+
+        /**
+         * Finished events plus the open ones that currently qualify; pending horizons use the latest bars
+         */
+        private Snapshot snapshot(PriceSeries series) {
+            int count = eventCount + openPeaks.size();
+            int[] snapshotPeaks = Arrays.copyOf(peaks, count);
+            int[] snapshotBottoms = Arrays.copyOf(bottoms, count);
+            int[] snapshotDrawdowns = Arrays.copyOf(drawdowns, count);
+            int[] snapshotRecoveries = Arrays.copyOf(recoveries, count * HORIZONS.length);
+
+            int position = eventCount;
+            for (int k = 0; k < openPeaks.size(); k++) {
+                int peak = openPeaks.get(k);
+                int bottom = bottomWindow.get(bottomWindow.firstAfter(peak));
+                int firstHigher = openFirstHigher.get(k);
+                if (firstHigher >= 0 && firstHigher < bottom) {
+                    continue;
+                }
+                snapshotPeaks[position] = peak;
+                snapshotBottoms[position] = bottom;
+                snapshotDrawdowns[position] = FixedPointPrices.changeBasisPoints(series.close(peak), series.close(bottom));
+                LocalDate bottomDate = series.date(bottom);
+                for (int h = 0; h < HORIZONS.length; h++) {
+                    snapshotRecoveries[position * HORIZONS.length + h] = recovery(series, bottom,
+                        bottomDate.plusMonths(HORIZONS[h]).toEpochDay());
+                }
+                position++;
+            }
+            if (position < count) {
+                snapshotPeaks = Arrays.copyOf(snapshotPeaks, position);
+                snapshotBottoms = Arrays.copyOf(snapshotBottoms, position);
+                snapshotDrawdowns = Arrays.copyOf(snapshotDrawdowns, position);
+                snapshotRecoveries = Arrays.copyOf(snapshotRecoveries, position * HORIZONS.length);
+            }
+            for (int h = 0; h < HORIZONS.length; h++) {
+                for (int event = pending[h]; event < eventCount; event++) {
+                    snapshotRecoveries[event * HORIZONS.length + h] = recovery(series, bottoms[event],
+                        targetDays[event * HORIZONS.length + h]);
+                }
+            }
+
+            return new Snapshot(
+                PriceSeries.finishHash(runningHash),
+                athIndex,
+                DrawdownEventIndex.of(snapshotPeaks, snapshotBottoms, snapshotDrawdowns),
+                new ForwardReturns(HORIZONS, snapshotPeaks, snapshotRecoveries));
+        }
+    }
+
+    /**
+     * Bounded deque of ints on a ring buffer, for windows of at most {@code capacity} entries
+     * {@link #removed()} counts entries taken from the front, so positions can be tracked across removals.
+     */
+    private static final class IndexDeque {
+        private final int[] values;
+        private final int mask;
+        private int head;
+        private int size;
+        private int removed;
+
+        IndexDeque(int capacity) {
+            values = new int[Integer.highestOneBit(Math.max(1, capacity - 1)) << 1];
+            mask = values.length - 1;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int removed() {
+            return removed;
+        }
+
+        int get(int k) {
+            return values[(head + k) & mask];
+        }
+
+        void set(int k, int value) {
+            values[(head + k) & mask] = value;
+        }
+
+        int first() {
+            return get(0);
+        }
+
+        int last() {
+            return get(size - 1);
+        }
+
+        void addLast(int value) {
+            values[(head + size) & mask] = value;
+            size++;
+        }
+
+        int removeFirst() {
+            int value = first();
+            head = (head + 1) & mask;
+            size--;
+            removed++;
+            return value;
+        }
+
+        int removeLast() {
+            int value = last();
+            size--;
+            return value;
+        }
+
+        /**
+         * Position of the first entry greater than {@code value}, for entries in increasing order
+         */
+        int firstAfter(int value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (get(middle) > value) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PriceSeries;
+
+/**
+ * 시계열별 구간 최고/최저가 및 최대 낙폭 인덱스 (세그먼트 트리)
+ *
+ * 각 노드는 구간의 최고 종가, 최저 종가, 그리고 최대 낙폭(고점이 저점보다 앞서는 쌍)을
+ * 인덱스로 보관합니다. 임의 구간의 질의는 O(log n), 전체 구간은 O(1)입니다.
+ * 같은 값이면 앞선 봉을 우선합니다.
+ */
+public final class PriceRangeIndex {
+
+    private final double[] close;
+    private final int leaves;
+    private final int[] maxIndex;
+    private final int[] minIndex;
+    private final int[] peakIndex;
+    private final int[] troughIndex;
+
+    /**
+     * Highest and lowest close of a range and its largest peak-to-trough decline
+     * (peakIndex == troughIndex when the range never declines)
+     */
+    public record Range(int maxIndex, int minIndex, int peakIndex, int troughIndex) {
+    }
+
+    private PriceRangeIndex(PriceSeries series) {
+        int n = series.size();
+        this.close = new double[n];
+        for (int i = 0; i < n; i++) {
+            close[i] = series.close(i);
+        }
+
+        int size = 1;
+        while (size < n) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.maxIndex = new int[2 * size];
+        this.minIndex = new int[2 * size];
+        this.peakIndex = new int[2 * size];
+        this.troughIndex = new int[2 * size];
+
+        for (int node = size; node < 2 * size; node++) {
+            int index = node - size < n ? node - size : -1;
+            maxIndex[node] = index;
+            minIndex[node] = index;
+            peakIndex[node] = index;
+            troughIndex[node] = index;
+        }
+        for (int node = size - 1; node >= 1; node--) {
+            Range merged = merge(node(2 * node), node(2 * node + 1));
+            if (merged == null) {
+                // Padding beyond the last bar
+                maxIndex[node] = -1;
+                continue;
+            }
+            maxIndex[node] = merged.maxIndex();
+            minIndex[node] = merged.minIndex();
+            peakIndex[node] = merged.peakIndex();
+            troughIndex[node] = merged.troughIndex();
+        }
+    }
+
+    public static PriceRangeIndex build(PriceSeries series) {
+        if (series.isEmpty()) {
+            throw new IllegalArgumentException("Stock data list is empty");
+        }
+        return new PriceRangeIndex(series);
+    }
+
+    /**
+     * The whole series
+     */
+    public Range all() {
+        return node(1);
+    }
+
+    /**
+     * Bars in [fromIndex, toIndex] (both inclusive)
+     */
+    public Range query(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex >= close.length || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + "] of " + close.length);
+        }
+
+        // Bottom-up walk; left and right parts are merged separately because the order matters
+        Range left = null;
+        Range right = null;
+        int low = fromIndex + leaves;
+        int high = toIndex + leaves + 1;
+        while (low < high) {
+            if ((low & 1) == 1) {
+                left = merge(left, node(low++));
+            }
+            if ((high & 1) == 1) {
+                right = merge(node(--high), right);
+            }
+            low >>= 1;
+            high >>= 1;
+        }
+        return merge(left, right);
+    }
+
+    private Range node(int node) {
+        return maxIndex[node] < 0 ? null : new Range(maxIndex[node], minIndex[node], peakIndex[node], troughIndex[node]);
+    }
+
+    /**
+     * Combine two adjacent ranges; the largest decline is inside either one
+     * or runs from the left maximum to the right minimum
+     */
+    private Range merge(Range left, Range right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        int max = close[right.maxIndex()] > close[left.maxIndex()] ? right.maxIndex() : left.maxIndex();
+        int min = close[right.minIndex()] < close[left.minIndex()] ? right.minIndex() : left.minIndex();
+
+        int peak = left.peakIndex();
+        int trough = left.troughIndex();
+        if (decline(right.peakIndex(), right.troughIndex()) < decline(peak, trough)) {
+            peak = right.peakIndex();
+            trough = right.troughIndex();
+        }
+        if (decline(left.maxIndex(), right.minIndex()) < decline(peak, trough)) {
+            peak = left.maxIndex();
+            trough = right.minIndex();
+        }
+        return new Range(max, min, peak, trough);
+    }
+
+    /**
+     * Trough to peak ratio, 1 for no decline
+     */
+    private double decline(int peak, int trough) {
+        return close[trough] / close[peak];
+    }
+}
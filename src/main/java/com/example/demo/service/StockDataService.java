@@ -1,12 +1,16 @@
 package com.example.demo.service;
 
+import com.example.demo.model.PriceSeries;
 import com.example.demo.model.StockData;
+import com.example.demo.model.TickerMetadata;
 import com.example.demo.repository.JsonDataRepository;
+import com.example.demo.repository.TickerCatalog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -14,6 +18,7 @@ import java.util.List;
 public class StockDataService {
 
     private final JsonDataRepository jsonDataRepository;
+    private final TickerCatalog tickerCatalog;
 
     /**
      * Get stock data from local JSON file
@@ -21,24 +26,50 @@ public class StockDataService {
      * @param yearsBack Not used (kept for API compatibility)
      */
     public List<StockData> getStockData(String ticker, int yearsBack) {
-        log.info("Loading local data for {}", ticker);
-
-        if (!jsonDataRepository.hasData(ticker)) {
-            log.error("No data file found for {}. Please run convert_csv_to_json.py first", ticker);
-            throw new RuntimeException("No data file found for " + ticker +
-                ". Please run convert_csv_to_json.py to generate JSON data from CSV files.");
-        }
+        return getPriceSeries(ticker, yearsBack).toStockDataList();
+    }
 
-        List<StockData> data = jsonDataRepository.loadStockData(ticker);
+    /**
+     * Get stock data as a columnar series
+     * The repository keeps the latest published version of recently used tickers in memory,
+     * so steady-state requests do not touch disk.
+     * @param ticker Stock ticker symbol (e.g., "QQQ", "VOO", "SOXX")
+     * @param yearsBack Not used (kept for API compatibility)
+     */
+    public PriceSeries getPriceSeries(String ticker, int yearsBack) {
+        PriceSeries series = jsonDataRepository.loadPriceSeries(ticker);
 
-        if (data.isEmpty()) {
+        if (series.isEmpty()) {
+            if (!jsonDataRepository.hasData(ticker)) {
+                log.error("No data file found for {}. Please import history/{}_historical_data.csv first", ticker, ticker);
+                throw new RuntimeException("No data file found for " + ticker +
+                    ". Please add history/" + ticker + "_historical_data.csv and call /api/admin/import.");
+            }
             log.error("Data file for {} is empty", ticker);
             throw new RuntimeException("Data file for " + ticker + " is empty");
         }
 
-        log.info("Loaded {} records for {} (from {} to {})",
-            data.size(), ticker, data.get(0).getDate(), data.get(data.size()-1).getDate());
+        return series;
+    }
+
+    /**
+     * Tickers shown by default (featured entries of the catalog)
+     */
+    public List<String> getFeaturedTickers() {
+        return tickerCatalog.getFeaturedTickers();
+    }
 
-        return data;
+    /**
+     * First/last date, record count and version without loading the series
+     */
+    public Optional<TickerMetadata> getMetadata(String ticker) {
+        return tickerCatalog.getMetadata(ticker);
+    }
+
+    /**
+     * Metadata of every ticker in the universe
+     */
+    public List<TickerMetadata> getMetadataIndex() {
+        return tickerCatalog.getMetadataIndex();
     }
 }
@@ -0,0 +1,65 @@
+package com.example.demo.service;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API(jdk.incubator.vector) 커널
+ *
+ * {@code -Pvector} 프로필에서만 컴파일되며, {@link FixedPointPrices}가 이름으로 찾아 씁니다.
+ * JVM이 {@code --add-modules jdk.incubator.vector}로 시작되지 않으면 이 클래스는 초기화되지 않으며,
+ * 찾는 쪽은 LinkageError로 이를 알고 스칼라 경로를 씁니다.
+ */
+final class VectorKernels implements FixedPointPrices.BasisPointKernel {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    /**
+     * Ints with as many lanes as {@link #LONGS}, for narrowing the results
+     */
+    private static final VectorSpecies<Integer> INTS =
+        VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+    /**
+     * Longs per vector on this machine
+     */
+    @Override
+    public int lanes() {
+        return LONGS.length();
+    }
+
+    /**
+     * Lanewise {@code FixedPointPrices.divideBasisPoints(units[from[i]], units[to[i]])} for i in [0, count):
+     * gathered closes, (to - from) * 10000 / from with HALF_UP rounding, narrowed to int
+     */
+    @Override
+    public void changeBasisPoints(long[] units, int[] fromIndexes, int[] toIndexes, int[] out, int count) {
+        int bound = LONGS.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += LONGS.length()) {
+            LongVector from = LongVector.fromArray(LONGS, units, 0, fromIndexes, i);
+            LongVector to = LongVector.fromArray(LONGS, units, 0, toIndexes, i);
+
+            LongVector numerator = to.sub(from).mul(10_000L);
+            LongVector quotient = numerator.div(from);
+            LongVector remainder = numerator.sub(quotient.mul(from));
+
+            // HALF_UP: ties and above round away from zero, i.e. towards the sign of numerator / from
+            VectorMask<Long> roundAway = remainder.compare(VectorOperators.NE, 0L)
+                .and(remainder.abs().mul(2L).compare(VectorOperators.GE, from.abs()));
+            VectorMask<Long> positive = numerator.lanewise(VectorOperators.XOR, from)
+                .compare(VectorOperators.GE, 0L);
+            LongVector step = LongVector.broadcast(LONGS, -1L).blend(1L, positive);
+
+            ((IntVector) quotient.add(step, roundAway).convertShape(VectorOperators.L2I, INTS, 0))
+                .intoArray(out, i);
+        }
+        for (; i < count; i++) {
+            out[i] = FixedPointPrices.divideBasisPoints(units[fromIndexes[i]], units[toIndexes[i]]);
+        }
+    }
+}
@@ -1,4 +1,6 @@
 const API_BASE_URL = '/api/stocks';
+// Chart bars requested from the server; canvases are at most 800px wide
+const CHART_POINTS = 300;
 
 // DOM Elements
 const landingSection = document.getElementById('landing-section');
@@ -17,6 +19,9 @@ let currentAnalysisData = null;
 let currentTicker = null;
 let allTickersData = {};
 
+// Historical event charts, fetched on demand once per ticker and event
+const eventChartRequests = new Map();
+
 // Event Listeners
 tickerSelect.addEventListener('change', () => {
     const ticker = tickerSelect.value;
@@ -121,7 +126,7 @@ async function loadAllTickers() {
 
     try {
         const promises = tickers.map(ticker =>
-            fetch(`${API_BASE_URL}/${ticker}/analysis?years=10`)
+            fetch(`${API_BASE_URL}/${ticker}/analysis?years=10&points=${CHART_POINTS}`)
                 .then(res => res.json())
                 .then(data => ({ ticker, data }))
         );
@@ -241,7 +246,7 @@ function showError(message) {
 async function analyzeStock(ticker) {
     showLoading();
     try {
-        const response = await fetch(`${API_BASE_URL}/${ticker}/analysis?years=10`);
+        const response = await fetch(`${API_BASE_URL}/${ticker}/analysis?years=10&points=${CHART_POINTS}`);
         if (!response.ok) {
             throw new Error('데이터를 가져오는데 실패했습니다');
         }
@@ -382,7 +387,7 @@ function createHistoricalSection(historicals, currentDrawdown, ticker) {
                         하락률: ${formatPercent(hist.drawdownPercent)}
                     </div>
                 </div>
-                ${hist.chartData ? `
+                ${hist.eventId ? `
                     <div class="chart-container">
                         <canvas id="${chartId}" width="400" height="${chartHeight}"></canvas>
                     </div>
@@ -407,9 +412,9 @@ function createHistoricalSection(historicals, currentDrawdown, ticker) {
     // Draw charts after rendering
     setTimeout(() => {
         historicals.forEach((hist, index) => {
-            if (hist.chartData) {
+            if (hist.eventId) {
                 const chartId = `hist-chart-${ticker}-${index}`;
-                createHistoricalDrawdownChart(chartId, hist);
+                drawEventChartWhenVisible(chartId, ticker, hist, createHistoricalDrawdownChart);
             }
         });
     }, 100);
@@ -459,41 +464,15 @@ function createDrawdownLevelsSection(drawdownLevels, ticker) {
                         해당 하락률에서 투자 시 평균 수익률
                     </p>
                     <div class="recovery-grid">
-                        <div class="recovery-item">
-                            <div class="recovery-months">1개월 후</div>
-                            <div class="recovery-return ${stats.month1Avg >= 0 ? 'positive' : 'negative'}">
-                                ${formatPercent(stats.month1Avg)}
-                            </div>
-                            <div class="loss-count">손실: ${stats.month1LossCount}/${level.totalCases}건</div>
-                        </div>
-                        <div class="recovery-item">
-                            <div class="recovery-months">3개월 후</div>
-                            <div class="recovery-return ${stats.month3Avg >= 0 ? 'positive' : 'negative'}">
-                                ${formatPercent(stats.month3Avg)}
-                            </div>
-                            <div class="loss-count">손실: ${stats.month3LossCount}/${level.totalCases}건</div>
-                        </div>
-                        <div class="recovery-item">
-                            <div class="recovery-months">6개월 후</div>
-                            <div class="recovery-return ${stats.month6Avg >= 0 ? 'positive' : 'negative'}">
-                                ${formatPercent(stats.month6Avg)}
-                            </div>
-                            <div class="loss-count">손실: ${stats.month6LossCount}/${level.totalCases}건</div>
-                        </div>
-                        <div class="recovery-item">
-                            <div class="recovery-months">12개월 후</div>
-                            <div class="recovery-return ${stats.month12Avg >= 0 ? 'positive' : 'negative'}">
-                                ${formatPercent(stats.month12Avg)}
-                            </div>
-                            <div class="loss-count">손실: ${stats.month12LossCount}/${level.totalCases}건</div>
-                        </div>
-                        <div class="recovery-item">
-                            <div class="recovery-months">24개월 후</div>
-                            <div class="recovery-return ${stats.month24Avg >= 0 ? 'positive' : 'negative'}">
-                                ${formatPercent(stats.month24Avg)}
+                        ${stats.horizons.map(horizon => `
+                            <div class="recovery-item">
+                                <div class="recovery-months">${horizon.months}개월 후</div>
+                                <div class="recovery-return ${horizon.averageReturn >= 0 ? 'positive' : 'negative'}">
+                                    ${formatPercent(horizon.averageReturn)}
+                                </div>
+                                <div class="loss-count">손실: ${horizon.lossCount}/${level.totalCases}건</div>
                             </div>
-                            <div class="loss-count">손실: ${stats.month24LossCount}/${level.totalCases}건</div>
-                        </div>
+                        `).join('')}
                     </div>
                 </div>
             </div>
@@ -578,7 +557,7 @@ function showDetailView(level, ticker, pushState = true) {
                     </div>
                 </div>
 
-                ${histCase.chartData ? `
+                ${histCase.eventId ? `
                     <div class="detail-chart-container">
                         <canvas id="${chartId}" width="800" height="${detailChartHeight}"></canvas>
                     </div>
@@ -616,9 +595,9 @@ function showDetailView(level, ticker, pushState = true) {
     // Draw charts
     setTimeout(() => {
         level.historicalCases.forEach((histCase, index) => {
-            if (histCase.chartData) {
+            if (histCase.eventId) {
                 const chartId = `detail-chart-${ticker}-${index}`;
-                createDetailChart(chartId, histCase);
+                drawEventChartWhenVisible(chartId, ticker, histCase, createDetailChart);
             }
         });
     }, 100);
@@ -651,6 +630,46 @@ function hideDetailView(pushState = true) {
     window.scrollTo({ top: 0, behavior: 'smooth' });
 }
 
+// Fetch the chart of a historical event (3 months before peak to 12 months after bottom)
+function fetchEventChart(ticker, eventId) {
+    const key = `${ticker}/${eventId}`;
+    if (!eventChartRequests.has(key)) {
+        const request = fetch(`${API_BASE_URL}/${ticker}/events/${eventId}/chart?points=${CHART_POINTS}`)
+            .then(response => response.ok ? response.json() : null)
+            .catch(error => {
+                console.error(`Error loading chart for ${key}:`, error);
+                return null;
+            });
+        eventChartRequests.set(key, request);
+    }
+    return eventChartRequests.get(key);
+}
+
+// Load and draw an event chart once its canvas is about to scroll into view
+function drawEventChartWhenVisible(canvasId, ticker, historicalDrawdown, draw) {
+    const canvas = document.getElementById(canvasId);
+    if (!canvas) return;
+
+    const load = () => fetchEventChart(ticker, historicalDrawdown.eventId).then(chartData => {
+        if (chartData) {
+            draw(canvasId, { ...historicalDrawdown, chartData });
+        }
+    });
+
+    if (!('IntersectionObserver' in window)) {
+        load();
+        return;
+    }
+
+    const observer = new IntersectionObserver(entries => {
+        if (entries.some(entry => entry.isIntersecting)) {
+            observer.disconnect();
+            load();
+        }
+    }, { rootMargin: '200px' });
+    observer.observe(canvas);
+}
+
 function createDetailChart(canvasId, historicalDrawdown) {
     const canvas = document.getElementById(canvasId);
     if (!canvas) return;
@@ -1,11 +1,25 @@
 package com.example.demo;
 
+import com.example.demo.repository.BundledData;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
-@SpringBootTest
+import java.nio.file.Path;
+
+@SpringBootTest(properties = "data.import.on-startup=false")
 class DemoApplicationTests {
 
+	@TempDir
+	static Path dataDir;
+
+	@DynamicPropertySource
+	static void dataDirectory(DynamicPropertyRegistry registry) {
+		registry.add("data.dir", () -> BundledData.copyTo(dataDir).toString());
+	}
+
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,136 @@
+package com.example.demo.controller;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.repository.BundledData;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput and p99 latency of the analysis endpoints under ~1,000 concurrent clients,
+ * with the default platform thread pools and with {@code spring.threads.virtual.enabled=true}
+ *
+ * Each client sends requests back to back: mostly cached analyses, plus underwater curves with a random
+ * point count (CPU work per request) and window drawdowns. The application runs on a copy of the bundled data.
+ * Run with {@code ./mvnw test -Dtest=AnalysisLoadTest -Dbenchmark=true}
+ */
+class AnalysisLoadTest {
+
+    private static final int CLIENTS = 1_000;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+    private static final String[] TICKERS = {"QQQ", "VOO", "SOXX", "QQQM"};
+
+    @ParameterizedTest(name = "virtual threads: {0}")
+    @ValueSource(booleans = {false, true})
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void concurrentClients(boolean virtualThreads, @TempDir Path dataDir) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties(
+                    "server.port=0",
+                    "data.dir=" + BundledData.copyTo(dataDir),
+                    "spring.threads.virtual.enabled=" + virtualThreads,
+                    "data.import.on-startup=false",
+                    "logging.level.com.example.demo=WARN")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port + "/api/stocks";
+
+            HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+            run(client, base, WARMUP);
+            Result result = run(client, base, MEASUREMENT);
+
+            System.out.printf("virtual threads %-5s: %d clients, %,d requests, %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                virtualThreads, CLIENTS, result.latencies().length, result.throughput(),
+                result.percentile(0.50) / 1e6, result.percentile(0.99) / 1e6, result.percentile(1.0) / 1e6);
+            assertEquals(0, result.failures());
+            assertTrue(result.latencies().length > 0);
+        }
+    }
+
+    private static Result run(HttpClient client, String base, Duration duration) throws InterruptedException {
+        long end = System.nanoTime() + duration.toNanos();
+        List<long[]> perClient = new ArrayList<>(CLIENTS);
+        AtomicLong failures = new AtomicLong();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                long[] latencies = new long[1 << 16];
+                perClient.add(latencies);
+                clients.execute(() -> {
+                    int count = 0;
+                    while (System.nanoTime() < end && count < latencies.length - 1) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = client.send(nextRequest(base), HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[++count] = System.nanoTime() - sent;
+                    }
+                    latencies[0] = count;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = perClient.stream()
+            .flatMapToLong(latencies -> java.util.Arrays.stream(latencies, 1, (int) latencies[0] + 1))
+            .sorted()
+            .toArray();
+        return new Result(all, all.length / (elapsed / 1e9), failures.get());
+    }
+
+    private static HttpRequest nextRequest(String base) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String ticker = TICKERS[random.nextInt(TICKERS.length)];
+        int kind = random.nextInt(10);
+        String path;
+        if (kind < 7) {
+            path = "/" + ticker + "/analysis?years=10&points=300";
+        } else if (kind < 9) {
+            path = "/" + ticker + "/underwater?points=" + (50 + random.nextInt(2_000));
+        } else {
+            path = "/" + ticker + "/drawdown?from=20" + (15 + random.nextInt(10)) + "-01-01";
+        }
+        return HttpRequest.newBuilder(URI.create(base + path))
+            .header("Accept-Encoding", "gzip")
+            .timeout(Duration.ofSeconds(60))
+            .build();
+    }
+
+    private record Result(long[] latencies, double throughput, long failures) {
+
+        double percentile(double p) {
+            return latencies[Math.min(latencies.length - 1, (int) Math.ceil(p * latencies.length) - 1)];
+        }
+    }
+}
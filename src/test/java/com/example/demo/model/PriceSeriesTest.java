@@ -0,0 +1,81 @@
+package com.example.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PriceSeriesTest {
+
+    @Test
+    void nearestIndexMatchesForwardScan() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 200; trial++) {
+            PriceSeries series = randomSeries(random, 1 + random.nextInt(300));
+            for (int query = 0; query < 50; query++) {
+                int fromIndex = random.nextInt(series.size());
+                long target = series.epochDay(fromIndex) - 20 + random.nextInt(series.size() * 3 + 60);
+                assertEquals(forwardScan(series, target, fromIndex), series.nearestIndex(target, fromIndex),
+                    "target " + target + " from " + fromIndex);
+            }
+        }
+    }
+
+    @Test
+    void knownPrefixHashNeverHashes() {
+        Random random = new Random(1);
+        PriceSeries base = randomSeries(random, 200);
+        PriceSeries later = PriceSeries.wrap(new int[] {base.epochDay(199) + 1}, new double[] {1},
+            new double[] {1}, new double[] {1}, new double[] {1}, new long[] {1});
+
+        // Nothing is known before the base hash is computed
+        assertEquals(0, base.knownPrefixHash(200));
+        assertEquals(0, base.mergeWith(later).knownPrefixHash(200));
+
+        long hash = base.contentHash();
+        assertEquals(hash, base.knownPrefixHash(200));
+        assertEquals(0, base.knownPrefixHash(100));
+
+        // Repeated dates of the base collapse in the merge, so the sizes differ
+        PriceSeries appended = base.mergeWith(later);
+        assertEquals(hash, appended.knownPrefixHash(200));
+        assertEquals(0, appended.knownPrefixHash(appended.size()));
+        assertEquals(appended.contentHash(), appended.knownPrefixHash(appended.size()));
+    }
+
+    /**
+     * Trading-day-like dates with gaps and occasional repeated dates
+     */
+    private static PriceSeries randomSeries(Random random, int size) {
+        int[] days = new int[size];
+        double[] prices = new double[size];
+        long[] volumes = new long[size];
+        int day = 18_000;
+        for (int i = 0; i < size; i++) {
+            day += random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(random.nextInt(20) == 0 ? 30 : 4);
+            days[i] = day;
+            prices[i] = 100 + i;
+        }
+        return PriceSeries.wrap(days, prices, prices, prices, prices, volumes);
+    }
+
+    /**
+     * The walk that recovery periods used before the binary search
+     */
+    private static int forwardScan(PriceSeries series, long target, int fromIndex) {
+        int closestIndex = -1;
+        long minDaysDiff = Long.MAX_VALUE;
+        for (int i = fromIndex; i < series.size(); i++) {
+            long daysDiff = Math.abs(series.epochDay(i) - target);
+            if (daysDiff < minDaysDiff) {
+                minDaysDiff = daysDiff;
+                closestIndex = i;
+            }
+            if (series.epochDay(i) > target && daysDiff > 15) {
+                break;
+            }
+        }
+        return closestIndex;
+    }
+}
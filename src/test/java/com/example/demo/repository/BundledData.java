@@ -0,0 +1,55 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PriceSeries;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Copies of the bundled price history, so tests never write snapshots or caches into the source tree
+ */
+public final class BundledData {
+
+    private static final Path DATA_DIR = Paths.get("src/main/resources/data");
+
+    private BundledData() {
+    }
+
+    /**
+     * Copy every bundled {@code <ticker>.json} into {@code dir}
+     * @return {@code dir}
+     */
+    public static Path copyTo(Path dir) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(DATA_DIR, "*.json")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith("_analysis.json")) {
+                    Files.copy(file, dir.resolve(name));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return dir;
+    }
+
+    /**
+     * The bundled series of {@code ticker}, read without a repository
+     */
+    public static PriceSeries series(String ticker) throws IOException {
+        return new JsonPriceSeriesReader(new ObjectMapper().getFactory())
+            .read(DATA_DIR.resolve(ticker + ".json").toFile());
+    }
+
+    /**
+     * Repository over a copy of the bundled data in {@code dir}
+     */
+    public static JsonDataRepository repository(Path dir) {
+        return new JsonDataRepository(copyTo(dir).toString(), "binary", 256L << 20);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PriceSeries;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaVarintCodecTest {
+
+    private static final String DATA_DIR = "src/main/resources/data";
+
+    private final JsonPriceSeriesReader reader = new JsonPriceSeriesReader(new ObjectMapper().getFactory());
+    private final DeltaVarintCodec codec = new DeltaVarintCodec();
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"QQQ", "VOO", "SOXX", "QQQM"})
+    void roundTripsBundledDataExactly(String ticker) throws Exception {
+        PriceSeries expected = reader.read(new File(DATA_DIR, ticker + ".json"));
+        Path path = tempDir.resolve(ticker + DeltaVarintCodec.EXTENSION);
+
+        codec.write(path, expected);
+        PriceSeries actual = codec.read(path);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.epochDay(i), actual.epochDay(i));
+            assertEquals(expected.open(i), actual.open(i));
+            assertEquals(expected.high(i), actual.high(i));
+            assertEquals(expected.low(i), actual.low(i));
+            assertEquals(expected.close(i), actual.close(i));
+            assertEquals(expected.volume(i), actual.volume(i));
+        }
+
+        SeriesCodec.Header header = codec.readHeader(path);
+        assertEquals(expected.size(), header.recordCount());
+        assertEquals(expected.epochDay(0), header.firstEpochDay());
+        assertEquals(expected.epochDay(expected.size() - 1), header.lastEpochDay());
+    }
+
+    @Test
+    void detectsCorruptedBlock() throws Exception {
+        Path path = tempDir.resolve("QQQ" + DeltaVarintCodec.EXTENSION);
+        codec.write(path, reader.read(new File(DATA_DIR, "QQQ.json")));
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x01;
+
+        IOException e = assertThrows(IOException.class, () -> codec.decode(bytes));
+        assertTrue(e.getMessage().startsWith("Checksum mismatch"), e.getMessage());
+    }
+
+    @Test
+    void detectsTruncatedFile() throws Exception {
+        Path path = tempDir.resolve("VOO" + DeltaVarintCodec.EXTENSION);
+        codec.write(path, reader.read(new File(DATA_DIR, "VOO.json")));
+
+        byte[] bytes = Files.readAllBytes(path);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 7);
+
+        assertThrows(IOException.class, () -> codec.decode(truncated));
+    }
+
+    /**
+     * Run with {@code ./mvnw test -Dtest=DeltaVarintCodecTest -Dbenchmark=true}
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkSizeAndDecodeThroughput() throws Exception {
+        String[] tickers = {"QQQ", "VOO", "SOXX"};
+        BinarySnapshotCodec binary = new BinarySnapshotCodec();
+        int warmup = 200;
+        int iterations = 1000;
+
+        long jsonBytes = 0;
+        long binaryBytes = 0;
+        long deltaBytes = 0;
+        long rows = 0;
+        Path[] binaryFiles = new Path[tickers.length];
+        Path[] deltaFiles = new Path[tickers.length];
+        for (int t = 0; t < tickers.length; t++) {
+            File json = new File(DATA_DIR, tickers[t] + ".json");
+            PriceSeries series = reader.read(json);
+            binaryFiles[t] = tempDir.resolve(tickers[t] + BinarySnapshotCodec.EXTENSION);
+            deltaFiles[t] = tempDir.resolve(tickers[t] + DeltaVarintCodec.EXTENSION);
+            binary.write(binaryFiles[t], series);
+            codec.write(deltaFiles[t], series);
+
+            jsonBytes += json.length();
+            binaryBytes += Files.size(binaryFiles[t]);
+            deltaBytes += Files.size(deltaFiles[t]);
+            rows += series.size();
+        }
+
+        for (int i = 0; i < warmup; i++) {
+            for (int t = 0; t < tickers.length; t++) {
+                binary.read(binaryFiles[t]);
+                codec.read(deltaFiles[t]);
+            }
+        }
+
+        long binaryNanos = 0;
+        long deltaNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (int t = 0; t < tickers.length; t++) {
+                long start = System.nanoTime();
+                binary.read(binaryFiles[t]);
+                binaryNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                codec.read(deltaFiles[t]);
+                deltaNanos += System.nanoTime() - start;
+            }
+        }
+
+        long decodedRows = rows * iterations;
+        System.out.printf("rows: %d%n", rows);
+        System.out.printf("JSON:          %,10d bytes (%.1f bytes/row)%n", jsonBytes, (double) jsonBytes / rows);
+        System.out.printf("Binary (.bin): %,10d bytes (%.1f bytes/row)%n", binaryBytes, (double) binaryBytes / rows);
+        System.out.printf("Delta (.pxd):  %,10d bytes (%.1f bytes/row)%n", deltaBytes, (double) deltaBytes / rows);
+        System.out.printf("Binary decode: %.1f M rows/s%n", decodedRows / (binaryNanos / 1e9) / 1e6);
+        System.out.printf("Delta decode:  %.1f M rows/s%n", decodedRows / (deltaNanos / 1e9) / 1e6);
+        assertTrue(deltaBytes < binaryBytes);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PriceSeries;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvestingCsvReaderTest {
+
+    private static final String DATA_DIR = "src/main/resources/data";
+    private static final String HISTORY_DIR = "history";
+
+    private final JsonPriceSeriesReader jsonReader = new JsonPriceSeriesReader(new ObjectMapper().getFactory());
+
+    /**
+     * The bundled JSON was produced by convert_csv_to_json.py, which truncated volumes
+     * through a float ("80.09M" could become 80089999); the importer computes them exactly.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"QQQ", "VOO", "SOXX"})
+    void matchesBundledJson(String ticker) throws Exception {
+        PriceSeries expected = jsonReader.read(new File(DATA_DIR, ticker + ".json"));
+        PriceSeries actual = InvestingCsvReader.read(Paths.get(HISTORY_DIR, ticker + "_historical_data.csv"));
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.epochDay(i), actual.epochDay(i));
+            assertEquals(expected.open(i), actual.open(i));
+            assertEquals(expected.high(i), actual.high(i));
+            assertEquals(expected.low(i), actual.low(i));
+            assertEquals(expected.close(i), actual.close(i));
+            assertTrue(Math.abs(expected.volume(i) - actual.volume(i)) <= 1,
+                "volume on " + actual.date(i) + ": " + expected.volume(i) + " vs " + actual.volume(i));
+        }
+    }
+
+    @Test
+    void parsesInvestingQuirks() throws Exception {
+        String csv = "﻿\"날짜\",\"종가\",\"시가\",\"고가\",\"저가\",\"거래량\",\"변동 %\"\r\n"
+            + "\"2025- 11- 14\",\"1,608.86\",\"599.55\",\"613.35\",\"597.17\",\"80.09M\",\"0.08%\"\r\n"
+            + "\"2025- 11- 09\",\"608.40\",\"608.40\",\"608.40\",\"608.40\",\"\",\"0.00%\"\r\n"
+            + "\"2024- 02- 29\",\"608.40\",\"617.54\",\"618.12\",\"606.08\",\"516.48K\",\"-2.04%\"\r\n";
+
+        PriceSeries series = InvestingCsvReader.parse(csv.getBytes(StandardCharsets.UTF_8), "test");
+
+        assertEquals(2, series.size());
+        assertEquals(LocalDate.of(2024, 2, 29), series.date(0));
+        assertEquals(516_480L, series.volume(0));
+        assertEquals(LocalDate.of(2025, 11, 14), series.date(1));
+        assertEquals(1608.86, series.close(1));
+        assertEquals(599.55, series.open(1));
+        assertEquals(80_090_000L, series.volume(1));
+    }
+
+    @Test
+    void parsesEnglishExport() throws Exception {
+        String csv = "\"Date\",\"Price\",\"Open\",\"High\",\"Low\",\"Vol.\",\"Change %\"\n"
+            + "\"11/14/2025\",\"608.86\",\"599.55\",\"613.35\",\"597.17\",\"1.2B\",\"0.08%\"\n";
+
+        PriceSeries series = InvestingCsvReader.parse(csv.getBytes(StandardCharsets.UTF_8), "test");
+
+        assertEquals(LocalDate.of(2025, 11, 14), series.date(0));
+        assertEquals(1_200_000_000L, series.volume(0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"608.86", "1,608.86", "0.1", "123456789012345", "0.1234567890123456789",
+        "9007199254740993", "12,345,678.901234567", "-0.000000000000000001"})
+    void parsesPricesLikeDoubleParseDouble(String price) {
+        byte[] bytes = price.getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(Double.parseDouble(price.replace(",", "")), InvestingCsvReader.parsePrice(bytes, 0, bytes.length));
+    }
+
+    @Test
+    void rejectsMalformedRows() {
+        String csv = "\"날짜\",\"종가\",\"시가\",\"고가\",\"저가\",\"거래량\",\"변동 %\"\n"
+            + "\"2025- 13- 14\",\"608.86\",\"599.55\",\"613.35\",\"597.17\",\"80.09M\",\"0.08%\"\n";
+
+        assertThrows(IOException.class,
+            () -> InvestingCsvReader.parse(csv.getBytes(StandardCharsets.UTF_8), "test"));
+    }
+}
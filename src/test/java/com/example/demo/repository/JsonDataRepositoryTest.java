@@ -0,0 +1,54 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PriceSeries;
+import com.example.demo.model.TickerMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonDataRepositoryTest {
+
+    @Test
+    void externalChangeRefreshesMetadataOfAnEvictedTicker(@TempDir Path dataDir) throws Exception {
+        PriceSeries series = series(100);
+        // Room for one resident series: saving the second evicts the first, its metadata stays indexed
+        JsonDataRepository repository = new JsonDataRepository(dataDir.toString(), "binary",
+            series.estimatedBytes() + 1);
+        repository.saveSeries("A", series);
+        repository.saveSeries("B", series);
+        TickerMetadata before = repository.getMetadata("A").orElseThrow();
+        assertEquals(100, before.getRecordCount());
+
+        // Replaced by hand while not resident
+        File json = dataDir.resolve("A.json").toFile();
+        Files.writeString(json.toPath(), """
+            [
+              {"date": "2024-01-02", "open": 1.0, "high": 1.0, "low": 1.0, "close": 1.0, "volume": 1}
+            ]""");
+        assertTrue(json.setLastModified(before.getVersion() + 10_000));
+        repository.evictIfModified("A");
+
+        TickerMetadata after = repository.getMetadata("A").orElseThrow();
+        assertEquals(1, after.getRecordCount());
+        assertEquals(LocalDate.of(2024, 1, 2), after.getLastDate());
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(1, repository.loadPriceSeries("A").size());
+    }
+
+    private static PriceSeries series(int size) {
+        PriceSeries.Builder builder = PriceSeries.builder(size);
+        int day = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+        for (int i = 0; i < size; i++) {
+            double close = 100 + i % 7;
+            builder.add(day + i, close, close, close, close, 1_000 + i);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.PriceSeries;
+import com.example.demo.model.StockData;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonPriceSeriesReaderTest {
+
+    private static final String DATA_DIR = "src/main/resources/data";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final JsonPriceSeriesReader reader = new JsonPriceSeriesReader(objectMapper.getFactory());
+
+    @ParameterizedTest
+    @ValueSource(strings = {"QQQ", "VOO", "SOXX", "QQQM"})
+    void matchesObjectMapperOnBundledData(String ticker) throws Exception {
+        File file = new File(DATA_DIR, ticker + ".json");
+
+        PriceSeries expected = PriceSeries.fromStockData(readWithObjectMapper(file));
+        PriceSeries actual = reader.read(file);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.epochDay(i), actual.epochDay(i));
+            assertEquals(expected.open(i), actual.open(i));
+            assertEquals(expected.high(i), actual.high(i));
+            assertEquals(expected.low(i), actual.low(i));
+            assertEquals(expected.close(i), actual.close(i));
+            assertEquals(expected.volume(i), actual.volume(i));
+        }
+    }
+
+    @Test
+    void readsOnlyTheRequestedDateRange() throws Exception {
+        File file = new File(DATA_DIR, "QQQ.json");
+        LocalDate from = LocalDate.of(2020, 1, 1);
+        LocalDate to = LocalDate.of(2020, 12, 31);
+
+        PriceSeries all = reader.read(file);
+        PriceSeries range = reader.read(file, from.toEpochDay(), to.toEpochDay());
+
+        int start = all.lowerBound(from.toEpochDay());
+        int end = all.upperBound(to.toEpochDay());
+        assertEquals(end - start, range.size());
+        assertEquals(all.date(start), range.firstDate());
+        assertEquals(all.date(end - 1), range.lastDate());
+        assertEquals(all.close(start), range.close(0));
+    }
+
+    @Test
+    void epochDayMatchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1970, 1, 1); date.getYear() < 2100; date = date.plusDays(1)) {
+            assertEquals(date.toEpochDay(),
+                JsonPriceSeriesReader.epochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+        }
+    }
+
+    /**
+     * Run with {@code ./mvnw test -Dtest=JsonPriceSeriesReaderTest -Dbenchmark=true}
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkAgainstObjectMapper() throws Exception {
+        String[] tickers = {"QQQ", "VOO", "SOXX"};
+        int warmup = 30;
+        int iterations = 100;
+
+        for (int i = 0; i < warmup; i++) {
+            for (String ticker : tickers) {
+                File file = new File(DATA_DIR, ticker + ".json");
+                readWithObjectMapper(file);
+                reader.read(file);
+            }
+        }
+
+        long rows = 0;
+        long objectMapperNanos = 0;
+        long streamingNanos = 0;
+        long lastYearNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String ticker : tickers) {
+                File file = new File(DATA_DIR, ticker + ".json");
+
+                long start = System.nanoTime();
+                rows += PriceSeries.fromStockData(readWithObjectMapper(file)).size();
+                objectMapperNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                reader.read(file);
+                streamingNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                reader.read(file, LocalDate.of(2024, 11, 1).toEpochDay(), Integer.MAX_VALUE);
+                lastYearNanos += System.nanoTime() - start;
+            }
+        }
+
+        int loads = iterations * tickers.length;
+        System.out.printf("rows per load: %d%n", rows / loads);
+        System.out.printf("ObjectMapper List<StockData>: %.3f ms/load%n", objectMapperNanos / 1e6 / loads);
+        System.out.printf("Streaming PriceSeries:        %.3f ms/load%n", streamingNanos / 1e6 / loads);
+        System.out.printf("Streaming, last year only:    %.3f ms/load%n", lastYearNanos / 1e6 / loads);
+        assertTrue(streamingNanos > 0);
+    }
+
+    private List<StockData> readWithObjectMapper(File file) throws Exception {
+        return objectMapper.readValue(file, new TypeReference<List<StockData>>() {});
+    }
+}
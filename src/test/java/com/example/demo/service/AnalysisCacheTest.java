@@ -0,0 +1,77 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockAnalysisResponse;
+import com.example.demo.repository.JsonDataRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisCacheTest {
+
+    private static final long CONTENT_HASH = 42;
+
+    @Test
+    void concurrentPutsForOneTickerAllReachTheDiskFile(@TempDir Path dataDir) throws Exception {
+        JsonDataRepository repository = new JsonDataRepository(dataDir.toString(), "binary", 256L << 20);
+        AnalysisCache cache = new AnalysisCache(repository);
+
+        ExecutorService requests = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> puts = new ArrayList<>();
+            for (int i = 1; i <= 8; i++) {
+                int tolerance = i;
+                puts.add(requests.submit(() -> cache.put(key(tolerance), CONTENT_HASH, response(tolerance))));
+            }
+            for (Future<?> put : puts) {
+                put.get();
+            }
+        } finally {
+            requests.shutdown();
+        }
+        cache.flush();
+
+        AnalysisCache restarted = new AnalysisCache(repository);
+        for (int i = 1; i <= 8; i++) {
+            assertEquals(response(i), restarted.get(key(i), CONTENT_HASH).orElseThrow());
+        }
+    }
+
+    @Test
+    void diskFileKeepsTheMostRecentResults(@TempDir Path dataDir) throws Exception {
+        JsonDataRepository repository = new JsonDataRepository(dataDir.toString(), "binary", 256L << 20);
+        AnalysisCache cache = new AnalysisCache(repository);
+        ReflectionTestUtils.setField(cache, "diskEntries", 4);
+
+        for (int i = 1; i <= 10; i++) {
+            cache.put(key(i), CONTENT_HASH, response(i));
+            cache.flush();
+        }
+
+        assertEquals(4, repository.loadAnalysisCache("QQQ", AnalysisCache.CacheFile.class)
+            .orElseThrow().getResults().size());
+        AnalysisCache restarted = new AnalysisCache(repository);
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(i > 6, restarted.get(key(i), CONTENT_HASH).isPresent(), "tolerance " + i);
+        }
+        assertTrue(restarted.get(key(10), CONTENT_HASH + 1).isEmpty());
+    }
+
+    private static AnalysisCache.Key key(int tolerance) {
+        return new AnalysisCache.Key("QQQ", AnalysisParameters.of(null, BigDecimal.valueOf(tolerance), null));
+    }
+
+    private static StockAnalysisResponse response(int tolerance) {
+        return StockAnalysisResponse.builder().message("tolerance " + tolerance).build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PriceSeries;
+import com.example.demo.repository.BundledData;
+import com.example.demo.repository.JsonDataRepository;
+import com.example.demo.repository.TickerCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void servesTheSameBytesUntilTheTagChanges() throws Exception {
+        AnalysisResponseCache cache = new AnalysisResponseCache(objectMapper);
+        AtomicInteger computed = new AtomicInteger();
+        Map<String, Object> response = Map.of("ticker", "QQQ", "prices", List.of(1.5, 2.25));
+
+        AnalysisResponseCache.Payload first = cache.get("\"a\"", () -> {
+            computed.incrementAndGet();
+            return response;
+        }, r -> true);
+        AnalysisResponseCache.Payload second = cache.get("\"a\"", () -> {
+            computed.incrementAndGet();
+            return response;
+        }, r -> true);
+        cache.get("\"b\"", () -> {
+            computed.incrementAndGet();
+            return response;
+        }, r -> true);
+
+        assertSame(first, second);
+        assertEquals(2, computed.get());
+        assertTrue(first.reusable());
+        assertArrayEquals(objectMapper.writeValueAsBytes(response), first.json());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertArrayEquals(first.json(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void externalDataChangeMissesTheCachedPayload(@TempDir Path dataDir) throws Exception {
+        PriceSeries qqq = BundledData.series("QQQ");
+        // Room for one resident series: saving VOO evicts QQQ, whose metadata stays indexed
+        JsonDataRepository repository = new JsonDataRepository(dataDir.toString(), "binary", qqq.estimatedBytes() + 1);
+        repository.saveSeries("QQQ", qqq);
+        repository.saveSeries("VOO", qqq);
+        StockDataService stockDataService = new StockDataService(repository, new TickerCatalog(repository));
+        AnalysisService analysisService = new AnalysisService(stockDataService, new AnalysisCache(repository),
+            new AnalysisExecutors(2, 64), new IncrementalAnalysisEngine());
+        AnalysisResponseCache cache = new AnalysisResponseCache(dataMapper());
+
+        AnalysisResponseCache.Payload before = cache.get(tag(analysisService),
+            () -> analysisService.analyzeStock("QQQ", 10), r -> true);
+
+        // Replaced by hand with one bar less while not resident, as the data directory watcher sees it
+        File json = dataDir.resolve("QQQ.json").toFile();
+        dataMapper().writeValue(json, qqq.slice(0, qqq.size() - 1).toStockDataList());
+        assertTrue(json.setLastModified(json.lastModified() + 10_000));
+        repository.evictIfModified("QQQ");
+
+        AnalysisResponseCache.Payload after = cache.get(tag(analysisService),
+            () -> analysisService.analyzeStock("QQQ", 10), r -> true);
+        assertNotSame(before, after);
+        assertEquals(qqq.date(qqq.size() - 2).toString(),
+            objectMapper.readTree(after.json()).get("dataEndDate").asText());
+    }
+
+    @Test
+    void doesNotKeepResponsesThatAreNotReusable() {
+        AnalysisResponseCache cache = new AnalysisResponseCache(objectMapper);
+        AtomicInteger computed = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            AnalysisResponseCache.Payload payload = cache.get("\"a\"", () -> {
+                computed.incrementAndGet();
+                return Map.of("message", "Error: no data");
+            }, r -> false);
+            assertFalse(payload.reusable());
+            assertNull(payload.gzip());
+        }
+        assertEquals(2, computed.get());
+    }
+
+    private static String tag(AnalysisService analysisService) {
+        return analysisService.getResponseVersion(List.of("QQQ"), 10, AnalysisParameters.DEFAULT, null)
+            .orElseThrow().tag();
+    }
+
+    /**
+     * Mapper that writes dates as in the data files
+     */
+    private static ObjectMapper dataMapper() {
+        return new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisScopeTest {
+
+    @Test
+    void rejectedTasksRunOnThePoolBeforeTheDeadline() throws Exception {
+        AnalysisExecutors executors = new AnalysisExecutors(1, 1);
+        AtomicInteger ranOnCaller = new AtomicInteger();
+        Thread caller = Thread.currentThread();
+        try (AnalysisScope scope = new AnalysisScope(executors.tickers(), Duration.ofSeconds(10))) {
+            // One running, one queued, the rest rejected by the full queue
+            for (int i = 0; i < 6; i++) {
+                scope.fork(() -> {
+                    if (Thread.currentThread() == caller) {
+                        ranOnCaller.incrementAndGet();
+                    }
+                    Thread.sleep(20);
+                    return null;
+                });
+            }
+            assertTrue(scope.join());
+        } finally {
+            executors.shutdown();
+        }
+        assertEquals(0, ranOnCaller.get());
+    }
+
+    @Test
+    void deadlineStopsBlockedTasksAndNeverStartsDeferredOnes() throws Exception {
+        AnalysisExecutors executors = new AnalysisExecutors(1, 1);
+        CountDownLatch never = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AtomicBoolean deferredRan = new AtomicBoolean();
+        try (AnalysisScope scope = new AnalysisScope(executors.io(), Duration.ofMillis(200))) {
+            Future<?> blocked = scope.fork(() -> {
+                try {
+                    never.await();
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                return null;
+            });
+            scope.fork(() -> null);
+            scope.fork(() -> {
+                deferredRan.set(true);
+                return null;
+            });
+
+            assertFalse(scope.join());
+            assertTrue(blocked.isCancelled());
+        } finally {
+            executors.shutdown();
+        }
+
+        for (int i = 0; i < 100 && !interrupted.get(); i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertTrue(interrupted.get());
+        assertFalse(deferredRan.get());
+    }
+
+    @Test
+    void stagesOfAnAbandonedAnalysisNeverTakeAPermit() throws Exception {
+        AnalysisExecutors executors = new AnalysisExecutors(1, 16, true, 1, Duration.ofSeconds(10));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean abandonedRan = new AtomicBoolean();
+        try {
+            // The analysis thread forks two stages and is gone before the second gets the only permit
+            Thread analysis = Thread.ofVirtual().start(() -> {
+                Executor stages = executors.stages();
+                stages.execute(() -> {
+                    holding.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                stages.execute(() -> abandonedRan.set(true));
+                try {
+                    holding.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+            analysis.join();
+            TimeUnit.MILLISECONDS.sleep(50);
+            release.countDown();
+
+            // The permit goes to a live analysis
+            assertEquals(1, CompletableFuture.supplyAsync(() -> 1, executors.stages()).get(5, TimeUnit.SECONDS));
+        } finally {
+            executors.shutdown();
+        }
+        assertFalse(abandonedRan.get());
+    }
+}
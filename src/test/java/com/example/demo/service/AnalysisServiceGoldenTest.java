@@ -0,0 +1,200 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockAnalysisResponse;
+import com.example.demo.model.ChartData;
+import com.example.demo.model.HistoricalDrawdown;
+import com.example.demo.model.PriceSeries;
+import com.example.demo.repository.BundledData;
+import com.example.demo.repository.JsonDataRepository;
+import com.example.demo.repository.TickerCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Full analysis output on the bundled data must not change when the algorithms are reworked
+ *
+ * Regenerate the expected files with {@code ./mvnw test -Dtest=AnalysisServiceGoldenTest -Dgolden.update=true}
+ * only when a change to the output is intended.
+ */
+class AnalysisServiceGoldenTest {
+
+    private static final Path GOLDEN_DIR = Paths.get("src/test/resources/golden");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private AnalysisService analysisService;
+
+    @BeforeEach
+    void setUp(@TempDir Path dataDir) {
+        analysisService = createAnalysisService(BundledData.repository(dataDir));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"QQQ", "VOO", "SOXX", "QQQM"})
+    void analysisMatchesGoldenOutput(String ticker) throws Exception {
+        StockAnalysisResponse response = analysisService.analyzeStock(ticker, 10);
+        String actual = objectMapper.writeValueAsString(response);
+
+        Path golden = GOLDEN_DIR.resolve(ticker + ".json");
+        if (Boolean.getBoolean("golden.update")) {
+            Files.writeString(golden, actual, StandardCharsets.UTF_8);
+        }
+        assertEquals(Files.readString(golden, StandardCharsets.UTF_8), actual);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"QQQ", "VOO", "SOXX", "QQQM"})
+    void eventChartsMatchGoldenOutput(String ticker) throws Exception {
+        StockAnalysisResponse response = analysisService.analyzeStock(ticker, 10);
+        Map<String, ChartData> charts = new TreeMap<>();
+        List<HistoricalDrawdown> events = new ArrayList<>(response.getHistoricalDrawdowns());
+        response.getDrawdownLevelAnalyses().forEach(level -> events.addAll(level.getHistoricalCases()));
+        for (HistoricalDrawdown event : events) {
+            charts.put(event.getEventId(), analysisService.getEventChart(ticker, event.getEventId()).orElseThrow());
+        }
+        String actual = objectMapper.writeValueAsString(charts);
+
+        Path golden = GOLDEN_DIR.resolve(ticker + "-charts.json");
+        if (Boolean.getBoolean("golden.update")) {
+            Files.writeString(golden, actual, StandardCharsets.UTF_8);
+        }
+        assertEquals(Files.readString(golden, StandardCharsets.UTF_8), actual);
+    }
+
+    @Test
+    void analyzeAllKeepsOrderAndIsolatesFailures() throws Exception {
+        Map<String, StockAnalysisResponse> results = analysisService.analyzeAll(List.of("SOXX", "MISSING", "QQQ"), 10);
+
+        assertEquals(List.of("SOXX", "MISSING", "QQQ"), List.copyOf(results.keySet()));
+        assertTrue(results.get("MISSING").getMessage().startsWith("Error: No data file found for MISSING"));
+        for (String ticker : List.of("SOXX", "QQQ")) {
+            assertEquals(Files.readString(GOLDEN_DIR.resolve(ticker + ".json"), StandardCharsets.UTF_8),
+                objectMapper.writeValueAsString(results.get(ticker)));
+        }
+    }
+
+    @Test
+    void batchComputesOnlyTheRequestedFields() throws Exception {
+        Map<String, StockAnalysisResponse> results = analysisService.analyzeBatch(List.of("QQQ", "VOO", "MISSING"),
+            AnalysisField.parse(List.of("currentDrawdown", "levels")), 10, AnalysisParameters.DEFAULT, null);
+
+        assertEquals(List.of("QQQ", "VOO", "MISSING"), List.copyOf(results.keySet()));
+        assertTrue(results.get("MISSING").getMessage().startsWith("Error: No data file found for MISSING"));
+        for (String ticker : List.of("QQQ", "VOO")) {
+            StockAnalysisResponse response = results.get(ticker);
+            JsonNode golden = objectMapper.readTree(Files.readString(GOLDEN_DIR.resolve(ticker + ".json"), StandardCharsets.UTF_8));
+            assertEquals(golden.get("currentDrawdown"), tree(response.getCurrentDrawdown()));
+            assertEquals(golden.get("drawdownLevelAnalyses"), tree(response.getDrawdownLevelAnalyses()));
+            assertEquals(golden.get("dataEndDate").asText(), response.getDataEndDate());
+            assertNull(response.getHistoricalDrawdowns());
+            assertNull(response.getOneYearChartData());
+        }
+
+        StockAnalysisResponse similar = analysisService.analyzeBatch(List.of("SOXX"),
+            EnumSet.of(AnalysisField.SIMILAR), 10, AnalysisParameters.DEFAULT, null).get("SOXX");
+        JsonNode golden = objectMapper.readTree(Files.readString(GOLDEN_DIR.resolve("SOXX.json"), StandardCharsets.UTF_8));
+        assertEquals(golden.get("historicalDrawdowns"), tree(similar.getHistoricalDrawdowns()));
+        assertNull(similar.getCurrentDrawdown());
+        assertNull(similar.getDrawdownLevelAnalyses());
+
+        assertThrows(IllegalArgumentException.class, () -> AnalysisField.parse(List.of("prices")));
+        assertEquals(EnumSet.allOf(AnalysisField.class), AnalysisField.parse(null));
+    }
+
+    @Test
+    void responseVersionChangesWithTickersAndParameters() {
+        AnalysisService.ResponseVersion version =
+            analysisService.getResponseVersion(List.of("QQQ"), 10, AnalysisParameters.DEFAULT, null).orElseThrow();
+
+        assertEquals(version,
+            analysisService.getResponseVersion(List.of("QQQ"), 10, AnalysisParameters.DEFAULT, null).orElseThrow());
+        assertNotEquals(version.tag(),
+            analysisService.getResponseVersion(List.of("QQQ"), 10, AnalysisParameters.DEFAULT, 300).orElseThrow().tag());
+        assertNotEquals(version.tag(), analysisService.getResponseVersion(List.of("QQQ"), 10,
+            AnalysisParameters.of(null, BigDecimal.ONE, null), null).orElseThrow().tag());
+        assertNotEquals(version.tag(),
+            analysisService.getResponseVersion(List.of("VOO"), 10, AnalysisParameters.DEFAULT, null).orElseThrow().tag());
+        assertNotEquals(version.tag(), analysisService.getResponseVersion(List.of("QQQ"), 10,
+            AnalysisParameters.DEFAULT, null, EnumSet.of(AnalysisField.CURRENT_DRAWDOWN)).orElseThrow().tag());
+        assertEquals(version, analysisService.getResponseVersion(List.of("QQQ"), 10,
+            AnalysisParameters.DEFAULT, null, EnumSet.allOf(AnalysisField.class)).orElseThrow());
+        assertTrue(analysisService.getResponseVersion(List.of("QQQ", "MISSING"), 10, AnalysisParameters.DEFAULT, null)
+            .isEmpty());
+    }
+
+    @Test
+    void responseVersionChangesWhenAnEvictedTickerIsReplaced(@TempDir Path dataDir) throws Exception {
+        PriceSeries qqq = BundledData.series("QQQ");
+        // Room for one resident series: saving VOO evicts QQQ, whose metadata stays indexed
+        JsonDataRepository repository = new JsonDataRepository(dataDir.toString(), "binary", qqq.estimatedBytes() + 1);
+        repository.saveSeries("QQQ", qqq);
+        repository.saveSeries("VOO", qqq);
+        AnalysisService service = createAnalysisService(repository);
+        AnalysisService.ResponseVersion before =
+            service.getResponseVersion(List.of("QQQ"), 10, AnalysisParameters.DEFAULT, null).orElseThrow();
+
+        // Replaced by hand with one bar less while not resident
+        File json = dataDir.resolve("QQQ.json").toFile();
+        objectMapper.writeValue(json, qqq.slice(0, qqq.size() - 1).toStockDataList());
+        assertTrue(json.setLastModified(before.lastModified() + 10_000));
+        repository.evictIfModified("QQQ");
+
+        AnalysisService.ResponseVersion after =
+            service.getResponseVersion(List.of("QQQ"), 10, AnalysisParameters.DEFAULT, null).orElseThrow();
+        assertNotEquals(before.tag(), after.tag());
+        assertEquals(qqq.date(qqq.size() - 2).toString(),
+            service.analyzeStock("QQQ", 10).getDataEndDate());
+    }
+
+    /**
+     * JSON tree of a value as written, parsed the same way as the golden files
+     */
+    private JsonNode tree(Object value) throws Exception {
+        return objectMapper.readTree(objectMapper.writeValueAsString(value));
+    }
+
+    private static AnalysisService createAnalysisService(JsonDataRepository repository) {
+        StockDataService stockDataService = new StockDataService(repository, new TickerCatalog(repository));
+
+        // Always compute; never serve or persist cached results
+        AnalysisCache noCache = new AnalysisCache(repository) {
+            @Override
+            public Optional<StockAnalysisResponse> get(Key key, long contentHash) {
+                return Optional.empty();
+            }
+
+            @Override
+            public void put(Key key, long contentHash, StockAnalysisResponse response) {
+            }
+        };
+        return new AnalysisService(stockDataService, noCache, new AnalysisExecutors(2, 64), new IncrementalAnalysisEngine());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownsamplingTest {
+
+    @Test
+    void keepsTheEndsAndOnePointPerBucket() {
+        Random random = new Random(13);
+        for (int trial = 0; trial < 100; trial++) {
+            int count = 1 + random.nextInt(3000);
+            int points = Downsampling.MIN_POINTS + random.nextInt(400);
+            double[] y = random.doubles(count).toArray();
+
+            int[] kept = Downsampling.largestTriangleThreeBuckets(i -> i, i -> y[i], count, points);
+
+            assertEquals(Math.min(points, count), kept.length);
+            assertEquals(0, kept[0]);
+            assertEquals(count - 1, kept[kept.length - 1]);
+            for (int k = 1; k < kept.length; k++) {
+                assertTrue(kept[k - 1] < kept[k]);
+            }
+        }
+    }
+
+    @Test
+    void keepsAnIsolatedSpike() {
+        double[] y = new double[1000];
+        y[637] = -50;
+
+        int[] kept = Downsampling.largestTriangleThreeBuckets(i -> i, i -> y[i], y.length, 20);
+
+        assertTrue(Arrays.stream(kept).anyMatch(i -> i == 637));
+    }
+
+    @Test
+    void keepsPinnedPointsWithinThePointCount() {
+        Random random = new Random(17);
+        for (int trial = 0; trial < 1000; trial++) {
+            int count = 2 + random.nextInt(trial < 500 ? 20 : 3000);
+            int points = Downsampling.MIN_POINTS + random.nextInt(trial < 500 ? 20 : 400);
+            double[] y = random.doubles(count).toArray();
+            int[] pinned = random.ints(random.nextInt(Math.min(points, 4)), 0, count).toArray();
+
+            int[] kept = Downsampling.largestTriangleThreeBuckets(i -> i, i -> y[i], count, points, pinned);
+
+            assertEquals(Math.min(points, count), kept.length);
+            for (int pin : pinned) {
+                assertTrue(Arrays.stream(kept).anyMatch(i -> i == pin));
+            }
+            for (int k = 1; k < kept.length; k++) {
+                assertTrue(kept[k - 1] < kept[k]);
+            }
+        }
+    }
+
+    @Test
+    void returnsOnlyThePinsWhenTheyFillThePointCount() {
+        double[] y = new Random(19).doubles(100).toArray();
+
+        assertArrayEquals(new int[] {10, 50, 90},
+            Downsampling.largestTriangleThreeBuckets(i -> i, i -> y[i], y.length, 3, 90, 10, 50));
+        assertArrayEquals(new int[] {0, 10, 50},
+            Downsampling.largestTriangleThreeBuckets(i -> i, i -> y[i], y.length, 3, 50, 10));
+    }
+
+    @Test
+    void keepsEveryPointWhenThereAreFewer() {
+        assertArrayEquals(new int[] {0, 1, 2, 3}, Downsampling.largestTriangleThreeBuckets(i -> i, i -> 0, 4, 10));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PriceSeries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fixed-point percentages must be exactly what the BigDecimal formula reports
+ */
+class FixedPointPricesTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 2, 3, 6})
+    void matchesBigDecimalChange(int decimals) {
+        Random random = new Random(decimals);
+        PriceSeries series = randomSeries(random, 2_000, decimals);
+        FixedPointPrices prices = FixedPointPrices.of(series);
+        assertTrue(prices.isExact());
+
+        for (int i = 0; i < 20_000; i++) {
+            int from = random.nextInt(series.size());
+            int to = random.nextInt(series.size());
+            assertEquals(expectedPercent(series, from, to), FixedPointPrices.toPercent(prices.changeBasisPoints(from, to)),
+                series.close(from) + " -> " + series.close(to));
+        }
+    }
+
+    @Test
+    void fallsBackToBigDecimalForLongDecimals() {
+        Random random = new Random(9);
+        PriceSeries series = randomSeries(random, 500, 9);
+        FixedPointPrices prices = FixedPointPrices.of(series);
+        assertFalse(prices.isExact());
+
+        for (int i = 0; i < 5_000; i++) {
+            int from = random.nextInt(series.size());
+            int to = random.nextInt(series.size());
+            assertEquals(expectedPercent(series, from, to), FixedPointPrices.toPercent(prices.changeBasisPoints(from, to)));
+        }
+    }
+
+    @Test
+    void roundsExactHalvesAwayFromZero() {
+        // -0.00005 and +0.00005 of the start price
+        PriceSeries series = series(200.00, 199.99, 200.01);
+        FixedPointPrices prices = FixedPointPrices.of(series);
+
+        assertEquals(expectedPercent(series, 0, 1), FixedPointPrices.toPercent(prices.changeBasisPoints(0, 1)));
+        assertEquals(expectedPercent(series, 0, 2), FixedPointPrices.toPercent(prices.changeBasisPoints(0, 2)));
+        assertEquals(-1, prices.changeBasisPoints(0, 1));
+        assertEquals(1, prices.changeBasisPoints(0, 2));
+    }
+
+    @Test
+    void toleranceBoundsMatchAbsoluteDifference() {
+        Random random = new Random(3);
+        BigDecimal tolerance = BigDecimal.valueOf(2.5);
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal target = BigDecimal.valueOf(random.nextInt(8_000) - 6_000, 2);
+            BigDecimal drawdown = FixedPointPrices.toPercent(random.nextInt(8_000) - 6_000);
+            int basisPoints = drawdown.movePointRight(2).intValueExact();
+
+            boolean expected = drawdown.subtract(target).abs().compareTo(tolerance) <= 0;
+            boolean actual = basisPoints >= FixedPointPrices.ceilBasisPoints(target.subtract(tolerance))
+                && basisPoints <= FixedPointPrices.floorBasisPoints(target.add(tolerance));
+            assertEquals(expected, actual, drawdown + " vs " + target);
+        }
+    }
+
+    /**
+     * The calculation the analysis used before the fixed-point kernel
+     */
+    private static BigDecimal expectedPercent(PriceSeries series, int from, int to) {
+        BigDecimal start = series.closeDecimal(from);
+        return series.closeDecimal(to).subtract(start)
+            .divide(start, 4, RoundingMode.HALF_UP)
+            .multiply(BigDecimal.valueOf(100))
+            .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static PriceSeries randomSeries(Random random, int size, int decimals) {
+        double[] closes = new double[size];
+        double price = 100;
+        for (int i = 0; i < size; i++) {
+            price = Math.max(0.5, price * (1 + random.nextGaussian() * 0.03));
+            closes[i] = BigDecimal.valueOf(price).setScale(decimals, RoundingMode.HALF_UP).doubleValue();
+            if (closes[i] == 0) {
+                closes[i] = 1;
+            }
+        }
+        return series(closes);
+    }
+
+    private static PriceSeries series(double... closes) {
+        PriceSeries.Builder builder = PriceSeries.builder(closes.length);
+        for (int i = 0; i < closes.length; i++) {
+            builder.add(18_000 + i, closes[i], closes[i], closes[i], closes[i], 0);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ForwardReturnsTest {
+
+    @Test
+    void batchChangesMatchPairwiseChanges() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 50; trial++) {
+            PriceSeries series = randomWalk(random, 2 + random.nextInt(500));
+            FixedPointPrices prices = FixedPointPrices.of(series);
+
+            int count = random.nextInt(100);
+            int[] from = new int[count];
+            int[] to = new int[count];
+            for (int i = 0; i < count; i++) {
+                from[i] = random.nextInt(series.size());
+                to[i] = random.nextInt(series.size());
+            }
+            int[] out = new int[count];
+            prices.changeBasisPoints(from, to, out, count);
+
+            for (int i = 0; i < count; i++) {
+                assertEquals(prices.changeBasisPoints(from[i], to[i]), out[i]);
+            }
+        }
+    }
+
+    @Test
+    void returnsAreMeasuredFromTheBottomToTheNearestBar() {
+        Random random = new Random(5);
+        PriceSeries series = randomWalk(random, 3000);
+        FixedPointPrices prices = FixedPointPrices.of(series);
+        DrawdownEventIndex events = IncrementalAnalysisEngine.replay(series).events();
+        int[] horizons = {1, 2, 7, 36};
+
+        ForwardReturns returns = ForwardReturns.compute(series, prices, events, horizons);
+
+        assertEquals(true, returns.hasHorizons(horizons));
+        for (DrawdownEventIndex.Event event : events.findWithin(-1_000_000, 1_000_000)) {
+            for (int h = 0; h < horizons.length; h++) {
+                long targetDay = series.date(event.bottomIndex()).plusMonths(horizons[h]).toEpochDay();
+                int closest = series.nearestIndex(targetDay, event.bottomIndex());
+                assertEquals(prices.changeBasisPoints(event.bottomIndex(), closest),
+                    returns.basisPoints(event.peakIndex(), h));
+            }
+        }
+    }
+
+    /**
+     * Prices with up to three decimals on weekdays, so that HALF_UP ties and negative changes occur
+     */
+    private static PriceSeries randomWalk(Random random, int size) {
+        PriceSeries.Builder builder = PriceSeries.builder(size);
+        int price = 100_000;
+        int day = 18_000;
+        for (int i = 0; i < size; i++) {
+            price = Math.max(1, price + random.nextInt(4001) - 2000);
+            double close = price / 1000.0;
+            builder.add(day, close, close, close, close, i);
+            day += (day + 3) % 7 == 4 ? 3 : 1;
+        }
+        return builder.build();
+    }
+}
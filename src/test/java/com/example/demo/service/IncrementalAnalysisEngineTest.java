@@ -0,0 +1,213 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PriceSeries;
+import com.example.demo.repository.JsonDataRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IncrementalAnalysisEngineTest {
+
+    @Test
+    void appendedBarsGiveTheSameStateAsAFullReplay() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 50; trial++) {
+            PriceSeries full = randomWalk(random, 1 + random.nextInt(1500));
+            IncrementalAnalysisEngine engine = new IncrementalAnalysisEngine();
+
+            // Publish the history the way daily updates do: the first part, then appended chunks
+            int size = 1 + random.nextInt(full.size());
+            PriceSeries series = full.slice(0, size);
+            assertMatchesDefinition(series, engine.advance("T", series));
+            while (size < full.size()) {
+                int next = Math.min(full.size(), size + 1 + random.nextInt(random.nextBoolean() ? 3 : 200));
+                PriceSeries appended = series.mergeWith(full.slice(size, next));
+                assertEquals(true, appended.extendsInstance(series.instanceId()));
+                engine.feed("T", appended);
+                series = appended;
+                size = next;
+                assertMatchesDefinition(series, engine.advance("T", series));
+            }
+        }
+    }
+
+    @Test
+    void plateausOfEqualClosesMatchTheDefinition() {
+        // Every bar of a plateau is a peak, so up to BOTTOM_WINDOW - PEAK_WINDOW events are open at once
+        Random random = new Random(5);
+        PriceSeries.Builder builder = PriceSeries.builder(3_000);
+        int day = 18_000;
+        double close = 100;
+        for (int i = 0; i < 3_000; i++) {
+            if (i % 400 >= 250) {
+                close = Math.max(1, close + random.nextInt(21) - 10);
+            }
+            builder.add(day, close, close, close, close, i);
+            day += (day + 3) % 7 == 4 ? 3 : 1;
+        }
+        PriceSeries full = builder.build();
+
+        IncrementalAnalysisEngine engine = new IncrementalAnalysisEngine();
+        PriceSeries series = full.slice(0, 100);
+        assertMatchesDefinition(series, engine.advance("T", series));
+        for (int size = 100; size < full.size(); size += 37) {
+            series = series.mergeWith(full.slice(size, Math.min(full.size(), size + 37)));
+            assertMatchesDefinition(series, engine.advance("T", series));
+        }
+        assertMatchesDefinition(full, IncrementalAnalysisEngine.replay(full));
+    }
+
+    @Test
+    void rewrittenHistoryIsReplayed() {
+        Random random = new Random(3);
+        PriceSeries series = randomWalk(random, 800);
+        IncrementalAnalysisEngine engine = new IncrementalAnalysisEngine();
+        engine.advance("T", series);
+
+        // Same dates, different closes: not an append, so the state must not be reused
+        PriceSeries rewritten = series.mergeWith(randomWalk(random, 400));
+        assertEquals(false, rewritten.extendsInstance(series.instanceId()));
+        assertMatchesDefinition(rewritten, engine.advance("T", rewritten));
+    }
+
+    @Test
+    void shorterRewriteReplacesTheState() {
+        Random random = new Random(13);
+        IncrementalAnalysisEngine engine = new IncrementalAnalysisEngine();
+        engine.advance("T", randomWalk(random, 800));
+
+        // Fewer bars than the state: the replay still becomes the state, so the next call reuses it
+        PriceSeries shorter = randomWalk(random, 500);
+        IncrementalAnalysisEngine.Snapshot snapshot = engine.advance("T", shorter);
+        assertMatchesDefinition(shorter, snapshot);
+        assertSame(snapshot, engine.advance("T", shorter));
+    }
+
+    @Test
+    void compactedAndReloadedSeriesContinueTheState(@TempDir Path dataDir) {
+        Random random = new Random(11);
+        PriceSeries full = randomWalk(random, 900);
+        JsonDataRepository repository = new JsonDataRepository(dataDir.toString(), "binary", 256L << 20);
+        IncrementalAnalysisEngine engine = new IncrementalAnalysisEngine();
+
+        repository.saveSeries("T", full.slice(0, 800));
+        engine.advance("T", repository.loadPriceSeries("T"));
+
+        // Daily update: appended as a segment, the published series extends the tracked one
+        repository.appendStockData("T", full.slice(800, 900).toStockDataList());
+        PriceSeries appended = repository.loadPriceSeries("T");
+        IncrementalAnalysisEngine.Snapshot snapshot = engine.advance("T", appended);
+        assertMatchesDefinition(appended, snapshot);
+
+        // Compaction rewrites the files, not the bars: the state must not be replayed
+        assertEquals(1, repository.compact("T"));
+        assertSame(snapshot, engine.advance("T", repository.loadPriceSeries("T")));
+
+        // Evicted and read back from the snapshot: a new instance with the same bars
+        repository.evict("T");
+        PriceSeries reloaded = repository.loadPriceSeries("T");
+        assertNotSame(appended, reloaded);
+        assertSame(snapshot, engine.advance("T", reloaded));
+
+        // A later append to the reloaded series still matches a full replay
+        repository.appendStockData("T", randomWalkAfter(random, reloaded, 40).toStockDataList());
+        PriceSeries extended = repository.loadPriceSeries("T");
+        assertMatchesDefinition(extended, engine.advance("T", extended));
+    }
+
+    private static void assertMatchesDefinition(PriceSeries series, IncrementalAnalysisEngine.Snapshot snapshot) {
+        assertEquals(series.contentHash(), snapshot.contentHash());
+        assertEquals(PriceRangeIndex.build(series).all().maxIndex(), snapshot.peakIndex());
+
+        FixedPointPrices prices = FixedPointPrices.of(series);
+        List<DrawdownEventIndex.Event> actual = allEvents(snapshot.events());
+        assertEquals(definedEvents(series, prices), actual);
+
+        ForwardReturns recoveries = snapshot.recoveries();
+        for (DrawdownEventIndex.Event event : actual) {
+            for (int horizon = 0; horizon < recoveries.horizonCount(); horizon++) {
+                long targetDay = series.date(event.bottomIndex()).plusMonths(recoveries.months(horizon)).toEpochDay();
+                int closest = series.nearestIndex(targetDay, event.bottomIndex());
+                assertEquals(prices.changeBasisPoints(event.bottomIndex(), closest),
+                    recoveries.basisPoints(event.peakIndex(), horizon));
+            }
+        }
+    }
+
+    /**
+     * Events straight from their definition, rescanning the windows of every bar
+     */
+    private static List<DrawdownEventIndex.Event> definedEvents(PriceSeries series, FixedPointPrices prices) {
+        int peakWindow = IncrementalAnalysisEngine.PEAK_WINDOW;
+        int n = series.size();
+        List<DrawdownEventIndex.Event> events = new ArrayList<>();
+        for (int peak = peakWindow; peak < n - peakWindow; peak++) {
+            boolean highest = true;
+            for (int i = peak - peakWindow; i <= peak + peakWindow; i++) {
+                highest &= series.close(i) <= series.close(peak);
+            }
+            if (!highest) {
+                continue;
+            }
+
+            int bottom = peak + 1;
+            for (int i = bottom; i < Math.min(n, peak + IncrementalAnalysisEngine.BOTTOM_WINDOW); i++) {
+                if (series.close(i) < series.close(bottom)) {
+                    bottom = i;
+                }
+            }
+            boolean recoveredFirst = false;
+            for (int i = peak + 1; i < bottom; i++) {
+                recoveredFirst |= series.close(i) > series.close(peak);
+            }
+            if (!recoveredFirst) {
+                events.add(new DrawdownEventIndex.Event(peak, bottom, prices.changeBasisPoints(peak, bottom)));
+            }
+        }
+        return events;
+    }
+
+    private static List<DrawdownEventIndex.Event> allEvents(DrawdownEventIndex index) {
+        return index.findWithin(-1_000_000, 1_000_000);
+    }
+
+    /**
+     * {@code size} more weekday bars after the last bar of {@code series}
+     */
+    private static PriceSeries randomWalkAfter(Random random, PriceSeries series, int size) {
+        PriceSeries.Builder builder = PriceSeries.builder(size);
+        int price = (int) Math.round(series.close(series.size() - 1) * 10);
+        int day = series.epochDay(series.size() - 1);
+        for (int i = 0; i < size; i++) {
+            day += (day + 3) % 7 == 4 ? 3 : 1;
+            price = Math.max(1, price + random.nextInt(41) - 20);
+            double close = price / 10.0;
+            builder.add(day, close, close, close, close, i);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Coarse prices on weekdays, so that equal closes are common and drawdowns deep enough
+     */
+    private static PriceSeries randomWalk(Random random, int size) {
+        PriceSeries.Builder builder = PriceSeries.builder(size);
+        int price = 1_000;
+        int day = 18_000;
+        for (int i = 0; i < size; i++) {
+            price = Math.max(1, price + random.nextInt(41) - 20);
+            double close = price / 10.0;
+            builder.add(day, close, close, close, close, i);
+            day += (day + 3) % 7 == 4 ? 3 : 1;
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import com.example.demo.model.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PriceRangeIndexTest {
+
+    @Test
+    void matchesBruteForceOnRandomWindows() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 100; trial++) {
+            PriceSeries series = randomWalk(random, 1 + random.nextInt(500));
+            PriceRangeIndex index = PriceRangeIndex.build(series);
+
+            for (int query = 0; query < 100; query++) {
+                int from = random.nextInt(series.size());
+                int to = from + random.nextInt(series.size() - from);
+                PriceRangeIndex.Range range = index.query(from, to);
+
+                int max = from;
+                int min = from;
+                int runningMax = from;
+                double worst = 1;
+                for (int i = from; i <= to; i++) {
+                    if (series.close(i) > series.close(max)) {
+                        max = i;
+                    }
+                    if (series.close(i) < series.close(min)) {
+                        min = i;
+                    }
+                    if (series.close(i) > series.close(runningMax)) {
+                        runningMax = i;
+                    }
+                    worst = Math.min(worst, series.close(i) / series.close(runningMax));
+                }
+
+                assertEquals(max, range.maxIndex());
+                assertEquals(min, range.minIndex());
+                assertEquals(worst, series.close(range.troughIndex()) / series.close(range.peakIndex()));
+                assertEquals(true, range.peakIndex() <= range.troughIndex());
+            }
+        }
+    }
+
+    /**
+     * Coarse prices so that equal closes are common
+     */
+    private static PriceSeries randomWalk(Random random, int size) {
+        PriceSeries.Builder builder = PriceSeries.builder(size);
+        int price = 100;
+        for (int i = 0; i < size; i++) {
+            price = Math.max(1, price + random.nextInt(7) - 3);
+            builder.add(18_000 + i, price, price, price, price, 0);
+        }
+        return builder.build();
+    }
+}